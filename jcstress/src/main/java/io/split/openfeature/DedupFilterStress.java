@@ -0,0 +1,38 @@
+package io.split.openfeature;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZZ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("Keys first seen at the same time by different threads are both remembered, even when their bits share words.")
+@Outcome(id = "true, true, true", expect = ACCEPTABLE, desc = "Both new, both remembered")
+@Outcome(expect = FORBIDDEN, desc = "A bit lost to a concurrent update")
+@State
+public class DedupFilterStress {
+
+  // a capacity of one key makes a single 64 bit word, so every bit of both keys is set on the same word
+  private final DedupFilter filter = new DedupFilter(60_000, 1, 0);
+
+  @Actor
+  public void user1(ZZZ_Result r) {
+    r.r1 = filter.firstSeen("user-1:purchase", 0);
+  }
+
+  @Actor
+  public void user2(ZZZ_Result r) {
+    r.r2 = filter.firstSeen("user-2:purchase", 0);
+  }
+
+  @Arbiter
+  public void arbiter(ZZZ_Result r) {
+    r.r3 = !filter.firstSeen("user-1:purchase", 0) && !filter.firstSeen("user-2:purchase", 0);
+  }
+}
@@ -0,0 +1,54 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import io.split.openfeature.testing.InMemorySplitClient;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.LL_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("Evaluations never see an override table older than one they already saw.")
+@Outcome(id = "v1, v1", expect = ACCEPTABLE, desc = "Both before the swap")
+@Outcome(id = "v2, v2", expect = ACCEPTABLE, desc = "Both after the swap")
+@Outcome(id = "v1, v2", expect = ACCEPTABLE, desc = "Swapped between the evaluations")
+@Outcome(id = "v2, v1", expect = FORBIDDEN, desc = "Went back to the old table")
+@State
+public class OverridesSwapStress {
+
+  private static final InMemorySplitClient CLIENT = InMemorySplitClient.builder()
+          .flag("a", "sdk")
+          .flag("b", "sdk")
+          .build();
+
+  private static final FlagOverrides V1 = FlagOverrides.builder().flag("a", "v1").flag("b", "v1").build();
+  private static final FlagOverrides V2 = FlagOverrides.builder().flag("a", "v2").flag("b", "v2").build();
+
+  private static final EvaluationContext CONTEXT = new MutableContext("key");
+
+  // a module of its own, dropped with the state: the JVM-wide one would keep every provider registered until the end
+  // of the run
+  private final SplitProvider provider = new SplitProvider(new SplitModule(), CLIENT,
+          SplitProviderConfig.builder().build());
+
+  public OverridesSwapStress() {
+    provider.setOverrides(V1);
+  }
+
+  @Actor
+  public void swap() {
+    provider.setOverrides(V2);
+  }
+
+  @Actor
+  public void evaluate(LL_Result r) {
+    r.r1 = provider.getStringEvaluation("b", "default", CONTEXT).getValue();
+    r.r2 = provider.getStringEvaluation("a", "default", CONTEXT).getValue();
+  }
+}
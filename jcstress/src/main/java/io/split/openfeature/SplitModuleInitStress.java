@@ -0,0 +1,54 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+import io.split.client.SplitFactory;
+import io.split.openfeature.testing.InMemorySplitClient;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.IZ_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("Providers initializing the module at the same time create a single factory and share its client.")
+@Outcome(id = "1, true", expect = ACCEPTABLE, desc = "One factory, both providers got its client")
+@Outcome(expect = FORBIDDEN, desc = "Several factories, or providers with different clients")
+@State
+public class SplitModuleInitStress {
+
+  private final SplitModule module = new SplitModule();
+  private final AtomicInteger created = new AtomicInteger();
+
+  private SplitClient first;
+  private SplitClient second;
+
+  @Actor
+  public void provider1() {
+    module.init(this::factory);
+    first = module.getClient();
+  }
+
+  @Actor
+  public void provider2() {
+    module.init(this::factory);
+    second = module.getClient();
+  }
+
+  @Arbiter
+  public void arbiter(IZ_Result r) {
+    r.r1 = created.get();
+    r.r2 = first != null && first == second;
+  }
+
+  private SplitFactory factory() {
+    created.incrementAndGet();
+    return StressFactories.of(InMemorySplitClient.builder().flag("new-checkout", "on").build());
+  }
+}
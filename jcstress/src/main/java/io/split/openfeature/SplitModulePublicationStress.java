@@ -0,0 +1,35 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+import io.split.openfeature.testing.InMemorySplitClient;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.L_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("A thread reading the client of the module while another initializes it gets none or a working one.")
+@Outcome(id = "null", expect = ACCEPTABLE, desc = "Not initialized yet")
+@Outcome(id = "on", expect = ACCEPTABLE, desc = "Initialized, and the client sees its flags")
+@Outcome(expect = FORBIDDEN, desc = "A client that isn't fully constructed")
+@State
+public class SplitModulePublicationStress {
+
+  private final SplitModule module = new SplitModule();
+
+  @Actor
+  public void init() {
+    module.init(() -> StressFactories.of(InMemorySplitClient.builder().flag("new-checkout", "on").build()));
+  }
+
+  @Actor
+  public void evaluate(L_Result r) {
+    SplitClient client = module.getClient();
+    r.r1 = client == null ? null : client.getTreatment("key", "new-checkout");
+  }
+}
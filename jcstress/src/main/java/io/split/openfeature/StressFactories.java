@@ -0,0 +1,30 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+import io.split.client.SplitFactory;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Factories handing out an in-memory client, for stress tests of the module: creating them is cheap and has no
+ * side effect, so each test state can create its own.
+ */
+final class StressFactories {
+
+  private StressFactories() {
+  }
+
+  static SplitFactory of(SplitClient client) {
+    return (SplitFactory) Proxy.newProxyInstance(SplitFactory.class.getClassLoader(), new Class<?>[]{SplitFactory.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "client":
+                  return client;
+                case "isDestroyed":
+                  return false;
+                default:
+                  return null;
+              }
+            });
+  }
+}
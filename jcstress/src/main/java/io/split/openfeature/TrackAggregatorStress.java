@@ -0,0 +1,63 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.JD_Result;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("Values recorded while the aggregates are flushed are sent by that flush or by the next one.")
+@Outcome(id = "2, 3.0", expect = ACCEPTABLE, desc = "Both values sent once")
+@Outcome(expect = FORBIDDEN, desc = "A value lost or sent twice")
+@State
+public class TrackAggregatorStress {
+
+  private final TrackAggregator aggregator = new TrackAggregator(Set.of("purchase"));
+
+  // only written by the flushes, which don't run concurrently: the arbiter runs after every actor
+  private long count;
+  private double sum;
+
+  private final SplitClient client = (SplitClient) Proxy.newProxyInstance(SplitClient.class.getClassLoader(),
+          new Class<?>[]{SplitClient.class}, (proxy, method, args) -> {
+            if (method.getName().equals("track")) {
+              sum += (Double) args[3];
+              count += ((Number) ((Map<?, ?>) args[4]).get(TrackAggregator.COUNT)).longValue();
+              return true;
+            }
+            return null;
+          });
+
+  @Actor
+  public void record1() {
+    aggregator.record("key", "user", "purchase", 1);
+  }
+
+  @Actor
+  public void record2() {
+    aggregator.record("key", "user", "purchase", 2);
+  }
+
+  @Actor
+  public void flush() {
+    aggregator.flush(client);
+  }
+
+  @Arbiter
+  public void arbiter(JD_Result r) {
+    aggregator.flush(client);
+    r.r1 = count;
+    r.r2 = sum;
+  }
+}
@@ -0,0 +1,162 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Targeting key and attributes bound to the current thread for the duration of a unit of work, typically a request.
+ * When an evaluation or track call reaches {@link SplitProvider} without a targeting key, the provider uses the bound
+ * context: its attributes were converted once when it was created, so nothing is merged or converted per call unless
+ * the call carries attributes of its own.
+ * <pre>{@code
+ * AmbientContext.of(userId, Map.of("plan", "pro")).run(() -> handle(request));
+ * }</pre>
+ * Bindings are scoped: {@link #run}, {@link #call} and {@link #supply} restore whatever was bound before when they
+ * return, so pooled threads, including carrier threads of virtual threads, never keep a binding. Threads started
+ * inside a scope, virtual or not, inherit it for their whole life, so pools started there should only get wrapped
+ * tasks. Work handed to an executor must be wrapped with {@link #wrap(Runnable)}, {@link #wrap(Callable)} or
+ * {@link #wrap(Executor)} to carry the binding over; wrapped tasks run with exactly the captured binding.
+ */
+public final class AmbientContext {
+
+  private static final InheritableThreadLocal<AmbientContext> CURRENT = new InheritableThreadLocal<>();
+
+  private final String targetingKey;
+  private final Map<String, Object> attributes;
+
+  private AmbientContext(String targetingKey, Map<String, Object> attributes) {
+    if (targetingKey == null || targetingKey.isEmpty()) {
+      throw new IllegalArgumentException("targetingKey must not be empty");
+    }
+    this.targetingKey = targetingKey;
+    this.attributes = attributes;
+  }
+
+  /**
+   * @param targetingKey targeting key used by evaluations without one
+   * @param attributes Split attributes, already in the form {@link SplitProvider#transformContext} produces
+   */
+  public static AmbientContext of(String targetingKey, Map<String, Object> attributes) {
+    return new AmbientContext(targetingKey,
+            attributes == null ? Map.of() : Collections.unmodifiableMap(new HashMap<>(attributes)));
+  }
+
+  /**
+   * Converts an evaluation context once, to be bound for many evaluations.
+   */
+  public static AmbientContext from(EvaluationContext context) {
+    return new AmbientContext(context.getTargetingKey(), Collections.unmodifiableMap(context.asObjectMap()));
+  }
+
+  /**
+   * @return the context bound to the current thread, or null
+   */
+  public static AmbientContext current() {
+    return CURRENT.get();
+  }
+
+  public String targetingKey() {
+    return targetingKey;
+  }
+
+  /**
+   * @return attributes passed to the SDK, not to be modified
+   */
+  public Map<String, Object> attributes() {
+    return attributes;
+  }
+
+  /**
+   * Runs the task with this context bound to the current thread.
+   */
+  public void run(Runnable task) {
+    AmbientContext previous = bind(this);
+    try {
+      task.run();
+    } finally {
+      bind(previous);
+    }
+  }
+
+  /**
+   * Calls the task with this context bound to the current thread.
+   */
+  public <T> T call(Callable<T> task) throws Exception {
+    AmbientContext previous = bind(this);
+    try {
+      return task.call();
+    } finally {
+      bind(previous);
+    }
+  }
+
+  /**
+   * Gets a value with this context bound to the current thread.
+   */
+  public <T> T supply(Supplier<T> task) {
+    AmbientContext previous = bind(this);
+    try {
+      return task.get();
+    } finally {
+      bind(previous);
+    }
+  }
+
+  /**
+   * @return a task that runs with the context bound when it was wrapped, or with none if there was none
+   */
+  public static Runnable wrap(Runnable task) {
+    AmbientContext captured = current();
+    return () -> {
+      AmbientContext previous = bind(captured);
+      try {
+        task.run();
+      } finally {
+        bind(previous);
+      }
+    };
+  }
+
+  /**
+   * @return a task that is called with the context bound when it was wrapped, or with none if there was none
+   */
+  public static <T> Callable<T> wrap(Callable<T> task) {
+    AmbientContext captured = current();
+    return () -> {
+      AmbientContext previous = bind(captured);
+      try {
+        return task.call();
+      } finally {
+        bind(previous);
+      }
+    };
+  }
+
+  /**
+   * @return an executor that runs each task with the context bound when the task was submitted
+   */
+  public static Executor wrap(Executor executor) {
+    return task -> executor.execute(wrap(task));
+  }
+
+  private static AmbientContext bind(AmbientContext context) {
+    AmbientContext previous = CURRENT.get();
+    if (context == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(context);
+    }
+    return previous;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("targetingKey=%s, attributes=%s", targetingKey, attributes);
+  }
+}
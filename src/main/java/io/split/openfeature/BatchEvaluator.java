@@ -0,0 +1,74 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.exceptions.GeneralError;
+import io.split.client.SplitClient;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evaluates flags for a large number of rows on a {@link ForkJoinPool}. The caller's thread reads rows in chunks and
+ * hands them to the pool; at most two chunks per worker are in flight, so memory stays bounded whatever the number of
+ * rows. Results are handed to the sink as they are computed, from the pool's threads.
+ */
+final class BatchEvaluator {
+
+  private final SplitClient client;
+  private final int parallelism;
+  private final int chunkSize;
+
+  BatchEvaluator(SplitClient client, int parallelism, int chunkSize) {
+    this.client = client;
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+  }
+
+  BatchReport run(Iterator<BatchRow> rows, List<String> flags, BatchSink sink) {
+    long start = System.nanoTime();
+    List<String> flagList = List.copyOf(flags);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    Semaphore inFlight = new Semaphore(parallelism * 2);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    long count = 0;
+    try {
+      while (rows.hasNext() && failure.get() == null) {
+        List<BatchRow> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && rows.hasNext()) {
+          chunk.add(rows.next());
+        }
+        count += chunk.size();
+        inFlight.acquire();
+        pool.execute(() -> {
+          try {
+            for (BatchRow row : chunk) {
+              if (failure.get() != null) {
+                return;
+              }
+              sink.accept(row, client.getTreatmentsWithConfig(row.getKey(), flagList, row.getAttributes()));
+            }
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            inFlight.release();
+          }
+        });
+      }
+      // every permit back means every chunk is done
+      inFlight.acquire(parallelism * 2);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GeneralError("Batch evaluation interrupted", e);
+    } finally {
+      pool.shutdownNow();
+    }
+    if (failure.get() != null) {
+      throw new GeneralError("Error in batch evaluation", failure.get());
+    }
+    return new BatchReport(count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+}
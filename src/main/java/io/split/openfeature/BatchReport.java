@@ -0,0 +1,35 @@
+package io.split.openfeature;
+
+/**
+ * Outcome of a batch evaluation.
+ */
+public class BatchReport {
+
+  private final long rows;
+  private final long elapsedMillis;
+
+  BatchReport(long rows, long elapsedMillis) {
+    this.rows = rows;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public long rows() {
+    return rows;
+  }
+
+  public long elapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * @return rows evaluated per second
+   */
+  public double throughput() {
+    return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("rows=%d, elapsedMillis=%d, rows/s=%.0f", rows, elapsedMillis, throughput());
+  }
+}
@@ -0,0 +1,34 @@
+package io.split.openfeature;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One row of a batch evaluation: a targeting key and its attributes, passed to the SDK as they are.
+ */
+public final class BatchRow {
+
+  private final String key;
+  private final Map<String, Object> attributes;
+
+  private BatchRow(String key, Map<String, Object> attributes) {
+    this.key = Objects.requireNonNull(key);
+    this.attributes = attributes == null ? Map.of() : attributes;
+  }
+
+  public static BatchRow of(String key) {
+    return new BatchRow(key, null);
+  }
+
+  public static BatchRow of(String key, Map<String, Object> attributes) {
+    return new BatchRow(key, attributes);
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+}
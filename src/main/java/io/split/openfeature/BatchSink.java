@@ -0,0 +1,19 @@
+package io.split.openfeature;
+
+import io.split.client.api.SplitResult;
+
+import java.util.Map;
+
+/**
+ * Receives the results of a batch evaluation, one row at a time. It is called concurrently from the evaluation threads
+ * and in no particular order, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface BatchSink {
+
+  /**
+   * @param row the evaluated row
+   * @param results treatment and config per flag
+   */
+  void accept(BatchRow row, Map<String, SplitResult> results);
+}
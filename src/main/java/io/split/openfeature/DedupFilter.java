@@ -0,0 +1,120 @@
+package io.split.openfeature;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers which keys were seen recently, in two Bloom filters that rotate every window: a key is reported as new if
+ * neither has it, and is then added to the current one. A key passed at time t is reported as seen until between
+ * t + window and t + 2 * window. False positives (a new key reported as seen) happen at about 1% once
+ * {@code capacity} keys were added to both filters; there are no false negatives, except for concurrent first
+ * sightings of the same key, which may both be reported as new.
+ * <p>
+ * Bits are set with compare-and-set, and rotation only swaps references, so checks never take a lock.
+ */
+final class DedupFilter {
+
+  // k and bits per key for a 1% false positive rate
+  private static final int HASHES = 7;
+  private static final int BITS_PER_KEY = 10;
+
+  private final long window;
+  private final int mask;
+
+  private volatile Generation current;
+  private volatile Generation previous;
+  private volatile long rotateAt;
+
+  DedupFilter(long window, int capacity, long now) {
+    this.window = window;
+    long bits = Long.highestOneBit(Math.max(64L, (long) capacity * BITS_PER_KEY) - 1) << 1;
+    this.mask = (int) Math.min(bits, 1L << 30) - 1;
+    this.current = new Generation(mask + 1);
+    this.previous = new Generation(mask + 1);
+    this.rotateAt = now + window;
+  }
+
+  /**
+   * @return true if the key was not seen in the last window, in which case it is now
+   */
+  boolean firstSeen(String key, long now) {
+    if (now >= rotateAt) {
+      rotate(now);
+    }
+    long hash = hash(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    Generation current = this.current;
+    Generation previous = this.previous;
+    if (previous.contains(h1, h2, mask) || current.contains(h1, h2, mask)) {
+      return false;
+    }
+    current.add(h1, h2, mask);
+    return true;
+  }
+
+  /**
+   * @return bytes of the bit arrays of both filters, which don't grow with the number of keys
+   */
+  long sizeInBytes() {
+    return 2 * (MemoryEstimates.object(1, 0) + MemoryEstimates.object(1, 0) + MemoryEstimates.longArray(Math.max(1, (mask + 1) >>> 6)));
+  }
+
+  private synchronized void rotate(long now) {
+    if (now < rotateAt) {
+      return;
+    }
+    if (now >= rotateAt + window) {
+      // nothing seen in the current window is recent enough to keep either
+      previous = new Generation(mask + 1);
+    } else {
+      previous = current;
+    }
+    current = new Generation(mask + 1);
+    rotateAt = now + window;
+  }
+
+  // FNV-1a over the chars, then the murmur3 finalizer to spread the bits over both halves
+  private static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private static final class Generation {
+    private final AtomicLongArray words;
+
+    Generation(int bits) {
+      this.words = new AtomicLongArray(Math.max(1, bits >>> 6));
+    }
+
+    boolean contains(int h1, int h2, int mask) {
+      for (int i = 0; i < HASHES; i++) {
+        int bit = (h1 + i * h2) & mask;
+        if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void add(int h1, int h2, int mask) {
+      for (int i = 0; i < HASHES; i++) {
+        int bit = (h1 + i * h2) & mask;
+        long flag = 1L << bit;
+        int index = bit >>> 6;
+        long word = words.get(index);
+        while ((word & flag) == 0 && !words.compareAndSet(index, word, word | flag)) {
+          word = words.get(index);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.exceptions.OpenFeatureError;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a flag evaluation. Only evaluations slower than the threshold are recorded by default,
+ * lower it in the recording settings to get every evaluation. When the event is disabled it costs an allocation that
+ * the JIT usually removes, fields are only filled in for evaluations that will be committed.
+ */
+@Name("io.split.openfeature.Evaluation")
+@Label("Flag Evaluation")
+@Category({"Split", "OpenFeature"})
+@Description("Evaluation of a flag through the Split OpenFeature provider")
+@Threshold("10 ms")
+@StackTrace(false)
+final class EvaluationEvent extends Event {
+
+  @Label("Flag")
+  String flag;
+
+  @Label("Type")
+  String type;
+
+  @Label("Treatment")
+  String treatment;
+
+  @Label("Reason")
+  String reason;
+
+  @Label("Error Code")
+  String errorCode;
+
+  @Label("Cached")
+  @Description("Served from memory instead of being evaluated by the SDK")
+  boolean cached;
+
+  /**
+   * Ends the event and commits it if it is enabled and above the threshold.
+   *
+   * @param evaluation result of the evaluation, null if it failed
+   * @param error error thrown by the evaluation, null if it succeeded
+   */
+  void complete(String flag, String type, ProviderEvaluation<?> evaluation, OpenFeatureError error, boolean cached) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    this.flag = flag;
+    this.type = type;
+    this.cached = cached;
+    if (evaluation != null) {
+      this.treatment = evaluation.getVariant();
+      this.reason = evaluation.getReason();
+      this.errorCode = evaluation.getErrorCode() == null ? null : evaluation.getErrorCode().name();
+    } else if (error != null) {
+      this.reason = "ERROR";
+      this.errorCode = error.getErrorCode() == null ? null : error.getErrorCode().name();
+    }
+    commit();
+  }
+}
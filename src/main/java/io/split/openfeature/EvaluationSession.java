@@ -0,0 +1,194 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Reason;
+import dev.openfeature.sdk.Value;
+import dev.openfeature.sdk.exceptions.FlagNotFoundError;
+import dev.openfeature.sdk.exceptions.GeneralError;
+import dev.openfeature.sdk.exceptions.OpenFeatureError;
+import io.split.client.api.SplitResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Evaluations of a fixed set of flags for one targeting key, kept in memory for the lifetime of a long-lived session
+ * (a WebSocket or a gRPC stream, for instance).
+ * <p>
+ * The flags are evaluated once when the session is opened and served from memory afterwards, so impressions are
+ * recorded per evaluation, not per read. When the SDK applies a new definition for some of the flags, only those are
+ * evaluated again, and listeners are told about the ones whose treatment or config actually changed. Results follow the
+ * provider's {@link FlagOverrides} and localhost flags, and are updated when they change. Segment updates
+ * are not reported by the SDK, they are picked up by the periodic refresh (see
+ * {@link SplitProviderConfig.Builder#sessionRefreshInterval(int)}) or by calling {@link #refresh()}.
+ * <p>
+ * Sessions must be closed once they are no longer needed.
+ */
+public class EvaluationSession implements AutoCloseable {
+  private static final Logger _log = LoggerFactory.getLogger(EvaluationSession.class);
+
+  /**
+   * Notified, on the provider's scheduler thread, when a re-evaluation changes the result of a flag.
+   */
+  @FunctionalInterface
+  public interface ChangeListener {
+    void onChange(String flag, SplitResult previous, SplitResult current);
+  }
+
+  private final SplitProvider provider;
+  private final String targetingKey;
+  private final Map<String, Object> attributes;
+  private final List<String> flags;
+  private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+  private volatile Map<String, SplitResult> results;
+  private volatile boolean closed = false;
+
+  EvaluationSession(SplitProvider provider, String targetingKey, Map<String, Object> attributes, List<String> flags) {
+    this.provider = provider;
+    this.targetingKey = targetingKey;
+    this.attributes = attributes;
+    this.flags = List.copyOf(flags);
+    this.results = Map.copyOf(provider.evaluateSession(targetingKey, this.flags, attributes));
+  }
+
+  public String getTargetingKey() {
+    return targetingKey;
+  }
+
+  public List<String> getFlags() {
+    return flags;
+  }
+
+  public void addListener(ChangeListener listener) {
+    listeners.add(Objects.requireNonNull(listener));
+  }
+
+  public void removeListener(ChangeListener listener) {
+    listeners.remove(listener);
+  }
+
+  public ProviderEvaluation<Boolean> getBooleanEvaluation(String flag, Boolean defaultValue) {
+    return getEvaluation(flag, defaultValue, SplitProvider.BOOLEAN_MAPPER, "Boolean");
+  }
+
+  public ProviderEvaluation<String> getStringEvaluation(String flag, String defaultValue) {
+    return getEvaluation(flag, defaultValue, SplitProvider.STRING_MAPPER, "String");
+  }
+
+  public ProviderEvaluation<Integer> getIntegerEvaluation(String flag, Integer defaultValue) {
+    return getEvaluation(flag, defaultValue, SplitProvider.INTEGER_MAPPER, "Integer");
+  }
+
+  public ProviderEvaluation<Double> getDoubleEvaluation(String flag, Double defaultValue) {
+    return getEvaluation(flag, defaultValue, SplitProvider.DOUBLE_MAPPER, "Double");
+  }
+
+  public ProviderEvaluation<Value> getObjectEvaluation(String flag, Value defaultValue) {
+    return getEvaluation(flag, defaultValue, SplitProvider.OBJECT_MAPPER, "Object");
+  }
+
+  /**
+   * Evaluates every flag of the session again.
+   */
+  public void refresh() {
+    reevaluate(flags);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    listeners.clear();
+    provider.closeSession(this);
+  }
+
+  /**
+   * @return estimated bytes of the session: its attributes, flag list and results
+   */
+  long estimateBytes() {
+    Map<String, SplitResult> current = results;
+    long bytes = MemoryEstimates.object(7, 0) + MemoryEstimates.string(targetingKey) + MemoryEstimates.attributes(attributes)
+            + MemoryEstimates.align(16 + flags.size() * MemoryEstimates.REFERENCE) + MemoryEstimates.map(current.size());
+    for (Map.Entry<String, SplitResult> entry : current.entrySet()) {
+      // flag names are shared with the flag list
+      bytes += MemoryEstimates.string(entry.getKey()) + MemoryEstimates.result(entry.getValue());
+    }
+    return bytes;
+  }
+
+  /**
+   * Re-evaluates the flags of this session among the ones whose definition, override or localhost entry changed.
+   */
+  void onFlagsChanged(Set<String> changed) {
+    List<String> affected = new ArrayList<>();
+    for (String flag : flags) {
+      if (changed.contains(flag)) {
+        affected.add(flag);
+      }
+    }
+    if (!affected.isEmpty()) {
+      reevaluate(affected);
+    }
+  }
+
+  private <T> ProviderEvaluation<T> getEvaluation(String flag, T defaultValue, SplitProvider.Mapper<T> mapper,
+                                                  String typeLabel) {
+    EvaluationEvent event = new EvaluationEvent();
+    event.begin();
+    ProviderEvaluation<T> evaluation = null;
+    OpenFeatureError error = null;
+    try {
+      SplitResult result = results.get(flag);
+      if (result == null) {
+        throw new FlagNotFoundError(String.format("Flag %s is not part of this session", flag));
+      }
+      provider.recordUsage(flag, result.treatment());
+      evaluation = provider.toProviderEvaluation(result, defaultValue, mapper, Reason.CACHED.name());
+      return evaluation;
+    } catch (OpenFeatureError e) {
+      error = e;
+      throw e;
+    } catch (Exception e) {
+      error = new GeneralError(String.format("Error getting %s evaluation", typeLabel), e);
+      throw error;
+    } finally {
+      event.complete(flag, typeLabel, evaluation, error, true);
+    }
+  }
+
+  private synchronized void reevaluate(Collection<String> toEvaluate) {
+    if (closed) {
+      return;
+    }
+    Map<String, SplitResult> evaluated = provider.evaluateSession(targetingKey, new ArrayList<>(toEvaluate), attributes);
+    Map<String, SplitResult> previous = results;
+    Map<String, SplitResult> updated = new HashMap<>(previous);
+    List<String> changed = new ArrayList<>();
+    for (Map.Entry<String, SplitResult> entry : evaluated.entrySet()) {
+      if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+        updated.put(entry.getKey(), entry.getValue());
+        changed.add(entry.getKey());
+      }
+    }
+    if (changed.isEmpty()) {
+      return;
+    }
+    results = Map.copyOf(updated);
+    for (String flag : changed) {
+      for (ChangeListener listener : listeners) {
+        try {
+          listener.onChange(flag, previous.get(flag), updated.get(flag));
+        } catch (RuntimeException e) {
+          _log.error("Session change listener failed for flag " + flag, e);
+        }
+      }
+    }
+  }
+}
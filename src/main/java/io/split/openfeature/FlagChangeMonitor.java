@@ -0,0 +1,77 @@
+package io.split.openfeature;
+
+import io.split.client.SplitManager;
+import io.split.client.api.SplitView;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects flag definition updates applied by the SDK by comparing the change number of every flag known to the
+ * SplitManager between polls. The SDK doesn't expose a listener for updates, so this is how the provider learns about
+ * them. Segment membership updates don't change any flag's change number and are not detected here.
+ */
+final class FlagChangeMonitor {
+
+  private final SplitManager manager;
+  private Map<String, Long> changeNumbers;
+
+  FlagChangeMonitor(SplitManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * @return flags whose definition was added, updated or removed since the previous poll. The first poll only takes
+   * the baseline and returns an empty set.
+   */
+  synchronized Set<String> poll() {
+    List<SplitView> views = manager.splits();
+    Map<String, Long> current = new HashMap<>(views.size() * 4 / 3 + 1);
+    for (SplitView view : views) {
+      current.put(view.name, view.changeNumber);
+    }
+    Map<String, Long> previous = changeNumbers;
+    changeNumbers = current;
+    if (previous == null) {
+      return Set.of();
+    }
+
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, Long> entry : current.entrySet()) {
+      if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String name : previous.keySet()) {
+      if (!current.containsKey(name)) {
+        changed.add(name);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * @return estimated bytes of the change numbers kept between polls
+   */
+  synchronized long estimateBytes() {
+    if (changeNumbers == null) {
+      return 0;
+    }
+    long bytes = MemoryEstimates.map(changeNumbers.size());
+    for (String name : changeNumbers.keySet()) {
+      bytes += MemoryEstimates.string(name) + MemoryEstimates.BOXED_LONG;
+    }
+    return bytes;
+  }
+
+  /**
+   * @return change number of every flag as of the last poll
+   */
+  synchronized Map<String, Long> changeNumbers() {
+    return changeNumbers == null ? Map.of() : Collections.unmodifiableMap(changeNumbers);
+  }
+}
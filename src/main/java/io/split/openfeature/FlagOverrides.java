@@ -0,0 +1,94 @@
+package io.split.openfeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Treatments forced locally, for every key or for specific keys, answered by {@link SplitProvider} before the SDK is
+ * consulted. Overrides are immutable: a new set is built and swapped in with {@link SplitProvider#setOverrides}, so
+ * evaluations read them without a lock. Keys not covered by an override are evaluated by the SDK as usual.
+ */
+public final class FlagOverrides {
+
+  /** Reason of evaluations answered by an override. */
+  public static final String REASON = "OVERRIDE";
+
+  public static final FlagOverrides NONE = new FlagOverrides(FlagTable.EMPTY);
+
+  private final FlagTable table;
+
+  private FlagOverrides(FlagTable table) {
+    this.table = table;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Reads overrides from a file in the localhost YAML format of the SDK. An entry with keys overrides the flag for
+   * those keys only.
+   */
+  public static FlagOverrides fromYaml(Path file) throws IOException {
+    return new FlagOverrides(FlagTable.fromYaml(file, null));
+  }
+
+  public Set<String> flagNames() {
+    return table.flagNames();
+  }
+
+  public boolean isEmpty() {
+    return table.isEmpty();
+  }
+
+  FlagTable table() {
+    return table;
+  }
+
+  @Override
+  public String toString() {
+    return "FlagOverrides" + flagNames();
+  }
+
+  public static final class Builder {
+    private final FlagTable.Builder table = FlagTable.builder();
+
+    private Builder() {
+    }
+
+    /**
+     * Forces the treatment of the flag for every key without an override of its own.
+     */
+    public Builder flag(String flag, String treatment) {
+      return flag(flag, treatment, null);
+    }
+
+    public Builder flag(String flag, String treatment, String config) {
+      if (flag == null || treatment == null) {
+        throw new IllegalArgumentException("flag and treatment must not be null");
+      }
+      table.flag(flag, treatment, config);
+      return this;
+    }
+
+    /**
+     * Forces the treatment of the flag for one key.
+     */
+    public Builder key(String flag, String key, String treatment) {
+      return key(flag, key, treatment, null);
+    }
+
+    public Builder key(String flag, String key, String treatment, String config) {
+      if (flag == null || key == null || treatment == null) {
+        throw new IllegalArgumentException("flag, key and treatment must not be null");
+      }
+      table.key(flag, key, treatment, config);
+      return this;
+    }
+
+    public FlagOverrides build() {
+      return new FlagOverrides(table.build(null));
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package io.split.openfeature;
+
+import io.split.client.YamlLocalhostSplitChangeFetcher;
+import io.split.client.api.SplitResult;
+import io.split.client.dtos.Condition;
+import io.split.client.dtos.ConditionType;
+import io.split.client.dtos.Matcher;
+import io.split.client.dtos.Partition;
+import io.split.client.dtos.Split;
+import io.split.client.dtos.SplitChange;
+import io.split.client.utils.FileInputStreamProvider;
+import io.split.engine.common.FetchOptions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable table of flags, each with a result served to every key and optional per-key results. Lookups are two hash
+ * map reads. Tables are never modified: a new one is built and swapped in, so readers need no lock.
+ */
+final class FlagTable {
+
+  static final FlagTable EMPTY = new FlagTable(Map.of());
+
+  static final SplitResult CONTROL = new SplitResult("control", null);
+
+  private final Map<String, Flag> flags;
+
+  private FlagTable(Map<String, Flag> flags) {
+    this.flags = Map.copyOf(flags);
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return result of the flag for the key, or null if the flag is not in the table, or if it only has results for
+   * other keys and the table was built without a result for unlisted keys
+   */
+  SplitResult get(String flag, String key) {
+    Flag entry = flags.get(flag);
+    if (entry == null) {
+      return null;
+    }
+    SplitResult result = entry.keys.get(key);
+    return result == null ? entry.result : result;
+  }
+
+  Set<String> flagNames() {
+    return flags.keySet();
+  }
+
+  boolean isEmpty() {
+    return flags.isEmpty();
+  }
+
+  /**
+   * @return estimated bytes held by each flag of the table: its entry, results and per-key results
+   */
+  Map<String, Long> estimateBytesPerFlag() {
+    Map<String, Long> bytes = new HashMap<>(flags.size() * 4 / 3 + 1);
+    flags.forEach((name, flag) -> bytes.put(name, MemoryEstimates.MAP_ENTRY + MemoryEstimates.string(name) + flag.estimateBytes()));
+    return bytes;
+  }
+
+  /**
+   * @return a table with the flags of both, flags of {@code other} replacing the ones with the same name
+   */
+  FlagTable merge(FlagTable other) {
+    if (other.isEmpty()) {
+      return this;
+    }
+    Map<String, Flag> merged = new HashMap<>(flags);
+    merged.putAll(other.flags);
+    return new FlagTable(merged);
+  }
+
+  /**
+   * @return flags added, removed or changed in {@code newer}
+   */
+  Set<String> changedFlags(FlagTable newer) {
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, Flag> entry : newer.flags.entrySet()) {
+      if (!entry.getValue().equals(flags.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String name : flags.keySet()) {
+      if (!newer.flags.containsKey(name)) {
+        changed.add(name);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Reads a localhost YAML file, with the SDK's own parser so the file means the same to the provider and to the SDK.
+   * Keys listed in an entry get its treatment; the entry without keys gives the treatment of every other key. A flag
+   * with only keyed entries is "control" for every other key.
+   */
+  static FlagTable fromYaml(Path file) throws IOException {
+    return fromYaml(file, CONTROL);
+  }
+
+  /**
+   * @param unlisted result of keys not listed for a flag with only keyed entries, null for none
+   */
+  static FlagTable fromYaml(Path file, SplitResult unlisted) throws IOException {
+    SplitChange change;
+    try {
+      change = new YamlLocalhostSplitChangeFetcher(new FileInputStreamProvider(file.toString()))
+              .fetch(-1, -1, new FetchOptions.Builder().build());
+    } catch (RuntimeException e) {
+      throw new IOException("Error parsing localhost file " + file, e);
+    }
+    Builder builder = builder();
+    if (change == null || change.featureFlags == null || change.featureFlags.d == null) {
+      return builder.build(unlisted);
+    }
+    for (Split split : change.featureFlags.d) {
+      // the SDK applies the first matching condition, so conditions are read backwards and earlier ones overwrite
+      for (int i = split.conditions.size() - 1; i >= 0; i--) {
+        Condition condition = split.conditions.get(i);
+        String treatment = treatment(condition);
+        if (treatment == null) {
+          continue;
+        }
+        String config = split.configurations == null ? null : split.configurations.get(treatment);
+        if (condition.conditionType == ConditionType.WHITELIST) {
+          for (Matcher matcher : condition.matcherGroup.matchers) {
+            if (matcher.whitelistMatcherData != null && matcher.whitelistMatcherData.whitelist != null) {
+              for (String key : matcher.whitelistMatcherData.whitelist) {
+                builder.key(split.name, key, treatment, config);
+              }
+            }
+          }
+        } else {
+          builder.flag(split.name, treatment, config);
+        }
+      }
+    }
+    return builder.build(unlisted);
+  }
+
+  // localhost conditions give the whole traffic to one partition
+  private static String treatment(Condition condition) {
+    Partition chosen = null;
+    if (condition.partitions != null) {
+      for (Partition partition : condition.partitions) {
+        if (chosen == null || partition.size > chosen.size) {
+          chosen = partition;
+        }
+      }
+    }
+    return chosen == null ? null : chosen.treatment;
+  }
+
+  private static final class Flag {
+    final SplitResult result;
+    final Map<String, SplitResult> keys;
+
+    Flag(SplitResult result, Map<String, SplitResult> keys) {
+      this.result = result;
+      this.keys = keys;
+    }
+
+    long estimateBytes() {
+      long bytes = MemoryEstimates.object(2, 0) + MemoryEstimates.result(result);
+      if (!keys.isEmpty()) {
+        bytes += MemoryEstimates.map(keys.size());
+        for (Map.Entry<String, SplitResult> entry : keys.entrySet()) {
+          bytes += MemoryEstimates.string(entry.getKey()) + MemoryEstimates.result(entry.getValue());
+        }
+      }
+      return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Flag)) {
+        return false;
+      }
+      Flag flag = (Flag) o;
+      return Objects.equals(result, flag.result) && keys.equals(flag.keys);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(result, keys);
+    }
+  }
+
+  static final class Builder {
+    private final Map<String, SplitResult> results = new HashMap<>();
+    private final Map<String, Map<String, SplitResult>> keys = new HashMap<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Result served to every key without its own. Flags with only per-key results get the result for unlisted keys
+     * given to {@link #build(SplitResult)}, "control" by default.
+     */
+    Builder flag(String flag, String treatment, String config) {
+      results.put(flag, new SplitResult(treatment, config));
+      return this;
+    }
+
+    Builder key(String flag, String key, String treatment, String config) {
+      keys.computeIfAbsent(flag, f -> new HashMap<>()).put(key, new SplitResult(treatment, config));
+      return this;
+    }
+
+    FlagTable build() {
+      return build(CONTROL);
+    }
+
+    /**
+     * @param unlisted result of keys not listed for flags with only per-key results, null for none
+     */
+    FlagTable build(SplitResult unlisted) {
+      Map<String, Flag> flags = new HashMap<>(results.size() * 4 / 3 + 1);
+      Set<String> names = new HashSet<>(results.keySet());
+      names.addAll(keys.keySet());
+      for (String name : names) {
+        Map<String, SplitResult> flagKeys = keys.get(name);
+        SplitResult result = results.containsKey(name) ? results.get(name) : unlisted;
+        flags.put(name, new Flag(result, flagKeys == null ? Map.of() : Map.copyOf(flagKeys)));
+      }
+      return new FlagTable(flags);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package io.split.openfeature;
+
+import java.util.Map;
+
+/**
+ * Point-in-time usage of a flag through the provider: how many times it was evaluated, how many times each treatment
+ * was returned and when it was last evaluated.
+ */
+public class FlagUsage {
+
+  static final String CONTROL = "control";
+
+  private final String flag;
+  private final long evaluations;
+  private final Map<String, Long> treatments;
+  private final long lastEvaluated;
+
+  FlagUsage(String flag, long evaluations, Map<String, Long> treatments, long lastEvaluated) {
+    this.flag = flag;
+    this.evaluations = evaluations;
+    this.treatments = Map.copyOf(treatments);
+    this.lastEvaluated = lastEvaluated;
+  }
+
+  public String getFlag() {
+    return flag;
+  }
+
+  public long getEvaluations() {
+    return evaluations;
+  }
+
+  /**
+   * @return number of evaluations per treatment, including "control"
+   */
+  public Map<String, Long> getTreatments() {
+    return treatments;
+  }
+
+  /**
+   * @return epoch millis of the last evaluation, or 0 if the flag was never evaluated
+   */
+  public long getLastEvaluated() {
+    return lastEvaluated;
+  }
+
+  public boolean isNeverEvaluated() {
+    return evaluations == 0;
+  }
+
+  /**
+   * @return true if the flag was evaluated and every evaluation returned "control" (the flag doesn't exist, was
+   * deleted or the SDK wasn't ready)
+   */
+  public boolean isAlwaysControl() {
+    return evaluations > 0 && treatments.getOrDefault(CONTROL, 0L) == evaluations;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: evaluations=%d, treatments=%s, lastEvaluated=%d", flag, evaluations, treatments, lastEvaluated);
+  }
+}
@@ -0,0 +1,151 @@
+package io.split.openfeature;
+
+import io.split.client.SplitManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts evaluations per flag and per treatment. Counters are striped ({@link LongAdder} and {@link LongAccumulator})
+ * so recording never takes a lock once a flag and treatment have been seen.
+ */
+final class FlagUsageTracker {
+  private static final Logger _log = LoggerFactory.getLogger(FlagUsageTracker.class);
+
+  private static final String NO_TREATMENT = "";
+
+  // flag names come from callers, a caller passing random names must not grow the counters forever
+  static final int MAX_FLAGS = 10_000;
+
+  private final ConcurrentHashMap<String, Counters> flags = new ConcurrentHashMap<>();
+  private final LongAdder droppedFlags = new LongAdder();
+
+  void record(String flag, String treatment) {
+    Counters counters = flags.get(flag);
+    if (counters == null) {
+      if (flags.size() >= MAX_FLAGS) {
+        droppedFlags.increment();
+        return;
+      }
+      counters = flags.computeIfAbsent(flag, f -> new Counters());
+    }
+    counters.record(treatment == null ? NO_TREATMENT : treatment);
+  }
+
+  /**
+   * @return evaluations not counted because {@link #MAX_FLAGS} other flags were already counted
+   */
+  long droppedFlags() {
+    return droppedFlags.sum();
+  }
+
+  /**
+   * @param manager if not null, flags it knows about that were never evaluated are included with no evaluations
+   */
+  Map<String, FlagUsage> snapshot(SplitManager manager) {
+    Map<String, FlagUsage> snapshot = new TreeMap<>();
+    if (manager != null) {
+      for (String name : manager.splitNames()) {
+        snapshot.put(name, new FlagUsage(name, 0, Map.of(), 0));
+      }
+    }
+    flags.forEach((flag, counters) -> snapshot.put(flag, counters.snapshot(flag)));
+    return snapshot;
+  }
+
+  /**
+   * @return estimated bytes of the counters of each flag
+   */
+  Map<String, Long> estimateBytesPerFlag() {
+    Map<String, Long> bytes = new HashMap<>(flags.size() * 4 / 3 + 1);
+    flags.forEach((flag, counters) -> bytes.put(flag, MemoryEstimates.MAP_ENTRY + MemoryEstimates.string(flag) + counters.estimateBytes()));
+    return bytes;
+  }
+
+  /**
+   * Drops the counters of the flags evaluated least recently until about {@code bytes} are freed. Evaluations of a
+   * dropped flag start counting again from zero.
+   *
+   * @return estimated bytes freed
+   */
+  long evictLeastRecent(long bytes) {
+    List<Map.Entry<String, Counters>> entries = new ArrayList<>(flags.entrySet());
+    entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastEvaluated.get()));
+    long freed = 0;
+    for (Map.Entry<String, Counters> entry : entries) {
+      if (freed >= bytes) {
+        break;
+      }
+      if (flags.remove(entry.getKey(), entry.getValue())) {
+        freed += MemoryEstimates.MAP_ENTRY + MemoryEstimates.string(entry.getKey()) + entry.getValue().estimateBytes();
+      }
+    }
+    if (freed > 0) {
+      _log.info("Flag usage counters evicted to stay under the memory limit, {} flags left", flags.size());
+    }
+    return freed;
+  }
+
+  void dump(SplitManager manager) {
+    if (!_log.isInfoEnabled()) {
+      return;
+    }
+    Map<String, FlagUsage> snapshot = snapshot(manager);
+    List<FlagUsage> hot = snapshot.values().stream()
+            .filter(usage -> !usage.isNeverEvaluated())
+            .sorted(Comparator.comparingLong(FlagUsage::getEvaluations).reversed())
+            .collect(Collectors.toList());
+    List<String> alwaysControl = snapshot.values().stream()
+            .filter(FlagUsage::isAlwaysControl).map(FlagUsage::getFlag).collect(Collectors.toList());
+    List<String> neverEvaluated = snapshot.values().stream()
+            .filter(FlagUsage::isNeverEvaluated).map(FlagUsage::getFlag).collect(Collectors.toList());
+    _log.info("Flag usage: {} evaluated, always control: {}, never evaluated: {}", hot.size(), alwaysControl, neverEvaluated);
+    if (droppedFlags() > 0) {
+      _log.warn("Flag usage: {} evaluations of flags beyond the first {} were not counted", droppedFlags(), MAX_FLAGS);
+    }
+    for (FlagUsage usage : hot) {
+      _log.info("Flag usage: {}", usage);
+    }
+  }
+
+  private static final class Counters {
+    private final LongAdder evaluations = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> treatments = new ConcurrentHashMap<>(4);
+    private final LongAccumulator lastEvaluated = new LongAccumulator(Long::max, 0);
+
+    void record(String treatment) {
+      evaluations.increment();
+      LongAdder counter = treatments.get(treatment);
+      if (counter == null) {
+        counter = treatments.computeIfAbsent(treatment, t -> new LongAdder());
+      }
+      counter.increment();
+      lastEvaluated.accumulate(System.currentTimeMillis());
+    }
+
+    long estimateBytes() {
+      long bytes = MemoryEstimates.object(3, 0) + MemoryEstimates.LONG_ADDER + MemoryEstimates.LONG_ACCUMULATOR
+              + MemoryEstimates.map(treatments.size());
+      for (String treatment : treatments.keySet()) {
+        bytes += MemoryEstimates.string(treatment) + MemoryEstimates.LONG_ADDER;
+      }
+      return bytes;
+    }
+
+    FlagUsage snapshot(String flag) {
+      Map<String, Long> counts = new HashMap<>(treatments.size() * 4 / 3 + 1);
+      treatments.forEach((treatment, counter) -> counts.put(treatment, counter.sum()));
+      return new FlagUsage(flag, evaluations.sum(), counts, lastEvaluated.get());
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package io.split.openfeature;
+
+/**
+ * Point-in-time freshness of the flag definitions held by the SDK: when definitions were last updated, how long
+ * updates took to arrive, and how many arrived in the last minute.
+ * <p>
+ * Change numbers of Split definitions are the epoch millis of the change, so the propagation lag of an update is the
+ * time between its change number and the moment the provider saw it applied. Updates are seen by polling the
+ * SplitManager every {@link SplitProviderConfig#changePollInterval()}, which adds up to that interval to the lags.
+ * Segment updates are not visible through the SplitManager and are not included.
+ */
+public class Freshness {
+
+  private final long lastUpdate;
+  private final long newestChangeNumber;
+  private final long lastLag;
+  private final long maxLag;
+  private final long updates;
+  private final int updatesLastMinute;
+  private final long timestamp;
+
+  Freshness(long lastUpdate, long newestChangeNumber, long lastLag, long maxLag, long updates, int updatesLastMinute,
+            long timestamp) {
+    this.lastUpdate = lastUpdate;
+    this.newestChangeNumber = newestChangeNumber;
+    this.lastLag = lastLag;
+    this.maxLag = maxLag;
+    this.updates = updates;
+    this.updatesLastMinute = updatesLastMinute;
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * @return epoch millis when the last update was seen, or 0 if none was seen since the provider started
+   */
+  public long getLastUpdate() {
+    return lastUpdate;
+  }
+
+  /**
+   * @return milliseconds since the last update was seen, or -1 if none was seen
+   */
+  public long getMillisSinceLastUpdate() {
+    return lastUpdate == 0 ? -1 : timestamp - lastUpdate;
+  }
+
+  /**
+   * @return highest change number of the definitions, or 0 if the SDK has none yet
+   */
+  public long getNewestChangeNumber() {
+    return newestChangeNumber;
+  }
+
+  /**
+   * @return milliseconds since the newest definition was changed in Split, or -1 if the SDK has no definitions
+   */
+  public long getMillisSinceNewestChange() {
+    return newestChangeNumber == 0 ? -1 : timestamp - newestChangeNumber;
+  }
+
+  /**
+   * @return propagation lag in milliseconds of the last update, or -1 if none was seen
+   */
+  public long getLastLag() {
+    return lastLag;
+  }
+
+  /**
+   * @return highest propagation lag in milliseconds seen since the provider started, or -1 if none was seen
+   */
+  public long getMaxLag() {
+    return maxLag;
+  }
+
+  /**
+   * @return number of flag updates seen since the provider started
+   */
+  public long getUpdates() {
+    return updates;
+  }
+
+  public int getUpdatesLastMinute() {
+    return updatesLastMinute;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("millisSinceLastUpdate=%d, millisSinceNewestChange=%d, lastLag=%d, maxLag=%d, updates=%d, "
+                    + "updatesLastMinute=%d", getMillisSinceLastUpdate(), getMillisSinceNewestChange(), lastLag, maxLag,
+            updates, updatesLastMinute);
+  }
+}
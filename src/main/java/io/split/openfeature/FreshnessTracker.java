@@ -0,0 +1,90 @@
+package io.split.openfeature;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns the flag updates found by {@link FlagChangeMonitor} into freshness gauges. Updates are recorded by the
+ * polling thread only; the gauges are volatile so a snapshot is a handful of reads, plus the updates of the last
+ * minute.
+ */
+final class FreshnessTracker {
+
+  private static final long MINUTE = 60_000L;
+
+  private volatile long lastUpdate = 0;
+  private volatile long newestChangeNumber = 0;
+  private volatile long lastLag = -1;
+  private volatile long maxLag = -1;
+  private volatile long updates = 0;
+  private final ArrayDeque<Long> recentUpdates = new ArrayDeque<>();
+
+  /**
+   * Records the updates found by a poll. Flags updated to a change number newer than any seen before measure the lag;
+   * the first definitions loaded by the SDK only set the baseline.
+   *
+   * @param changed flags added, updated or removed since the previous poll
+   * @param changeNumbers change number of every flag after the poll
+   * @param now epoch millis of the poll
+   */
+  void record(Set<String> changed, Map<String, Long> changeNumbers, long now) {
+    long newest = newestChangeNumber;
+    long polledNewest = newest;
+    for (Long changeNumber : changeNumbers.values()) {
+      polledNewest = Math.max(polledNewest, changeNumber);
+    }
+    if (newest == 0) {
+      newestChangeNumber = polledNewest;
+      return;
+    }
+    if (changed.isEmpty()) {
+      return;
+    }
+
+    long lag = -1;
+    for (String flag : changed) {
+      Long changeNumber = changeNumbers.get(flag);
+      if (changeNumber != null && changeNumber > newest) {
+        lag = Math.max(lag, Math.max(0, now - changeNumber));
+      }
+    }
+    if (lag >= 0) {
+      lastLag = lag;
+      maxLag = Math.max(maxLag, lag);
+    }
+    newestChangeNumber = polledNewest;
+    lastUpdate = now;
+    updates += changed.size();
+    synchronized (recentUpdates) {
+      for (int i = 0; i < changed.size(); i++) {
+        recentUpdates.addLast(now);
+      }
+      prune(now);
+    }
+  }
+
+  Freshness snapshot(long now) {
+    int lastMinute;
+    synchronized (recentUpdates) {
+      prune(now);
+      lastMinute = recentUpdates.size();
+    }
+    return new Freshness(lastUpdate, newestChangeNumber, lastLag, maxLag, updates, lastMinute, now);
+  }
+
+  /**
+   * @return estimated bytes of the timestamps of the updates of the last minute
+   */
+  long estimateBytes() {
+    synchronized (recentUpdates) {
+      return MemoryEstimates.object(2, 5) + recentUpdates.size() * (MemoryEstimates.BOXED_LONG + 2 * MemoryEstimates.REFERENCE);
+    }
+  }
+
+  private void prune(long now) {
+    while (!recentUpdates.isEmpty() && recentUpdates.peekFirst() <= now - MINUTE) {
+      recentUpdates.pollFirst();
+    }
+  }
+}
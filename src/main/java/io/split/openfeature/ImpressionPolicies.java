@@ -0,0 +1,89 @@
+package io.split.openfeature;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Resolves the {@link ImpressionPolicy} of a flag: a policy for its exact name wins, then the one with the longest
+ * matching prefix ({@code "kill-switch-*"}), then {@link ImpressionPolicy#FULL}. Resolutions are cached per flag, so
+ * after the first evaluation of a flag deciding costs a map lookup and, for sampled flags, a random number.
+ */
+final class ImpressionPolicies {
+
+  static final String WILDCARD = "*";
+
+  // flag names come from callers, a caller passing random names must not grow the cache forever
+  private static final int MAX_CACHED = 10_000;
+
+  private final Map<String, ImpressionPolicy> exact = new HashMap<>();
+  private final List<Map.Entry<String, ImpressionPolicy>> prefixes = new ArrayList<>();
+  private final ConcurrentHashMap<String, ImpressionPolicy> resolved = new ConcurrentHashMap<>();
+
+  ImpressionPolicies(Map<String, ImpressionPolicy> policies) {
+    policies.forEach((pattern, policy) -> {
+      if (pattern.endsWith(WILDCARD)) {
+        prefixes.add(Map.entry(pattern.substring(0, pattern.length() - 1), policy));
+      } else {
+        exact.put(pattern, policy);
+      }
+    });
+    prefixes.sort(Comparator.comparingInt((Map.Entry<String, ImpressionPolicy> entry) -> entry.getKey().length()).reversed());
+  }
+
+  /**
+   * @return true if this evaluation of the flag must generate an impression
+   */
+  boolean recordImpression(String flag) {
+    ImpressionPolicy policy = resolve(flag);
+    if (policy == ImpressionPolicy.FULL) {
+      return true;
+    }
+    return policy != ImpressionPolicy.NONE && ThreadLocalRandom.current().nextDouble() < policy.sampleRate();
+  }
+
+  ImpressionPolicy resolve(String flag) {
+    ImpressionPolicy policy = resolved.get(flag);
+    if (policy != null) {
+      return policy;
+    }
+    policy = lookup(flag);
+    if (resolved.size() < MAX_CACHED) {
+      resolved.put(flag, policy);
+    }
+    return policy;
+  }
+
+  /**
+   * @return estimated bytes of the cached resolution of each flag
+   */
+  Map<String, Long> estimateBytesPerFlag() {
+    Map<String, Long> bytes = new HashMap<>();
+    resolved.keySet().forEach(flag -> bytes.put(flag, MemoryEstimates.MAP_ENTRY + MemoryEstimates.string(flag)));
+    return bytes;
+  }
+
+  /**
+   * Drops the cached resolutions, flags are resolved again on their next evaluation.
+   */
+  void clearCache() {
+    resolved.clear();
+  }
+
+  private ImpressionPolicy lookup(String flag) {
+    ImpressionPolicy policy = exact.get(flag);
+    if (policy != null) {
+      return policy;
+    }
+    for (Map.Entry<String, ImpressionPolicy> prefix : prefixes) {
+      if (flag.startsWith(prefix.getKey())) {
+        return prefix.getValue();
+      }
+    }
+    return ImpressionPolicy.FULL;
+  }
+}
@@ -0,0 +1,46 @@
+package io.split.openfeature;
+
+/**
+ * Whether evaluations of a flag generate impressions. Evaluations that must not are done with the
+ * {@link SplitProviderConfig#nonRecordingClient()}, whose factory doesn't send impressions; in
+ * {@code ImpressionsManager.Mode.NONE} the SDK still tracks the unique keys and impression counts of those evaluations.
+ */
+public final class ImpressionPolicy {
+
+  /** Every evaluation generates an impression, as without a policy. */
+  public static final ImpressionPolicy FULL = new ImpressionPolicy(1);
+
+  /** No evaluation generates an impression. */
+  public static final ImpressionPolicy NONE = new ImpressionPolicy(0);
+
+  private final double sampleRate;
+
+  private ImpressionPolicy(double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * @param sampleRate fraction of the evaluations that generate an impression, at least 0 and at most 1
+   */
+  public static ImpressionPolicy sampled(double sampleRate) {
+    if (!(sampleRate >= 0 && sampleRate <= 1)) {
+      throw new IllegalArgumentException("sampleRate must be at least 0 and at most 1");
+    }
+    if (sampleRate == 1) {
+      return FULL;
+    }
+    return sampleRate == 0 ? NONE : new ImpressionPolicy(sampleRate);
+  }
+
+  public double sampleRate() {
+    return sampleRate;
+  }
+
+  @Override
+  public String toString() {
+    if (this == FULL) {
+      return "FULL";
+    }
+    return this == NONE ? "NONE" : String.format("SAMPLED(%s)", sampleRate);
+  }
+}
@@ -0,0 +1,40 @@
+package io.split.openfeature;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a provider lifecycle change: initialization (including the warm-up) and shutdown.
+ * These are rare, so they are recorded whatever their duration.
+ */
+@Name("io.split.openfeature.Lifecycle")
+@Label("Provider Lifecycle")
+@Category({"Split", "OpenFeature"})
+@Description("Initialization or shutdown of the Split OpenFeature provider")
+@StackTrace(false)
+final class LifecycleEvent extends Event {
+
+  static final String INITIALIZE = "initialize";
+  static final String SHUTDOWN = "shutdown";
+
+  @Label("Phase")
+  String phase;
+
+  @Label("Complete")
+  @Description("False if the phase failed or was cut short by its deadline")
+  boolean complete;
+
+  void complete(String phase, boolean complete) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    this.phase = phase;
+    this.complete = complete;
+    commit();
+  }
+}
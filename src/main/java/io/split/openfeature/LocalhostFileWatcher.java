@@ -0,0 +1,111 @@
+package io.split.openfeature;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches localhost YAML files with a {@link WatchService} and reports, on its own daemon thread, each file that was
+ * modified or replaced. Editors and deploy tools often write a file in several steps, so events are coalesced for a
+ * short while and each changed file is reported once.
+ */
+final class LocalhostFileWatcher implements Closeable {
+  private static final Logger _log = LoggerFactory.getLogger(LocalhostFileWatcher.class);
+
+  private static final long COALESCE_MILLIS = 50;
+
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> directories = new HashMap<>();
+  private final Set<Path> files;
+  private final Consumer<Path> onChange;
+  private final Thread thread;
+
+  /**
+   * @param files absolute, normalized paths of the files to watch
+   * @param onChange called with each changed file
+   */
+  LocalhostFileWatcher(List<Path> files, Consumer<Path> onChange) throws IOException {
+    this.files = Set.copyOf(files);
+    this.onChange = onChange;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    try {
+      Set<Path> registered = new LinkedHashSet<>();
+      for (Path file : files) {
+        Path directory = file.getParent();
+        if (registered.add(directory)) {
+          // files replaced by a rename show up as created, not modified
+          WatchKey key = directory.register(watchService,
+                  StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+          directories.put(key, directory);
+        }
+      }
+    } catch (IOException e) {
+      watchService.close();
+      throw e;
+    }
+    this.thread = new Thread(this::run, "split-localhost-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        Set<Path> changed = new LinkedHashSet<>();
+        collect(watchService.take(), changed);
+        WatchKey more;
+        while ((more = watchService.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          collect(more, changed);
+        }
+        for (Path file : changed) {
+          try {
+            onChange.accept(file);
+          } catch (RuntimeException e) {
+            _log.error("Error reloading localhost file " + file, e);
+          }
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // closed
+    }
+  }
+
+  private void collect(WatchKey key, Set<Path> changed) {
+    Path directory = directories.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (directory != null && event.context() instanceof Path) {
+        Path file = directory.resolve((Path) event.context());
+        if (files.contains(file)) {
+          changed.add(file);
+        }
+      }
+    }
+    key.reset();
+  }
+
+  @Override
+  public void close() {
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      _log.warn("Error closing the localhost file watcher", e);
+    }
+    thread.interrupt();
+  }
+}
@@ -0,0 +1,87 @@
+package io.split.openfeature;
+
+import io.split.client.api.SplitResult;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Shallow size estimates of the objects the provider keeps, for a 64-bit JVM with compressed references (12 byte
+ * headers, 4 byte references, 8 byte alignment). They are meant to compare components and follow their growth, not to
+ * match a heap dump to the byte.
+ */
+final class MemoryEstimates {
+
+  static final long HEADER = 12;
+  static final long REFERENCE = 4;
+
+  // a node of HashMap or ConcurrentHashMap, plus its table slot at the default load factor
+  static final long MAP_ENTRY = 32 + 6;
+  static final long MAP = 64;
+  static final long LONG_ADDER = 24;
+  static final long LONG_ACCUMULATOR = 40;
+  static final long BOXED_LONG = 16;
+
+  private MemoryEstimates() {
+  }
+
+  static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+
+  static long object(int references, int longs) {
+    return align(HEADER + references * REFERENCE + longs * 8L);
+  }
+
+  /**
+   * @return size of the string, assuming compact (Latin-1) strings
+   */
+  static long string(String s) {
+    return s == null ? 0 : 24 + align(16 + s.length());
+  }
+
+  static long map(int entries) {
+    return MAP + entries * MAP_ENTRY;
+  }
+
+  static long result(SplitResult result) {
+    return result == null ? 0 : object(2, 0) + string(result.treatment()) + string(result.config());
+  }
+
+  static long longArray(int length) {
+    return align(16 + length * 8L);
+  }
+
+  /**
+   * @return size of converted attributes, with nested maps and lists; other values are counted as a boxed primitive
+   */
+  static long attributes(Map<String, Object> attributes) {
+    long bytes = map(attributes.size());
+    for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+      bytes += string(entry.getKey()) + value(entry.getValue());
+    }
+    return bytes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static long value(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof String) {
+      return string((String) value);
+    }
+    if (value instanceof Map) {
+      return attributes((Map<String, Object>) value);
+    }
+    if (value instanceof Collection) {
+      Collection<Object> collection = (Collection<Object>) value;
+      long bytes = align(16 + collection.size() * REFERENCE) + object(2, 0);
+      for (Object element : collection) {
+        bytes += value(element);
+      }
+      return bytes;
+    }
+    return BOXED_LONG;
+  }
+}
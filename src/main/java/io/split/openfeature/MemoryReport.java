@@ -0,0 +1,119 @@
+package io.split.openfeature;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time estimate of the memory held by a provider, per component and per flag. Sizes are shallow estimates
+ * for a 64-bit JVM with compressed references; what the SDK itself holds (flag definitions, segments, impression and
+ * event queues) is not included. The client registry, shared by every provider of the JVM, and the off-heap buffer of
+ * the evaluation recorder are reported apart, outside of the total and the limit.
+ * <p>
+ * With a {@link SplitProviderConfig.Builder#memoryLimit(long) memory limit}, taking the report first evicts from the
+ * provider's caches until it is under the limit, see {@link #getEvicted()}.
+ */
+public class MemoryReport {
+
+  /** Flags read from localhost files. */
+  public static final String LOCALHOST_FLAGS = "localhostFlags";
+  /** Flags of the {@link FlagOverrides}. */
+  public static final String OVERRIDES = "overrides";
+  /** Impression policy resolved per flag. */
+  public static final String IMPRESSION_POLICY_CACHE = "impressionPolicyCache";
+  /** Flag usage counters. */
+  public static final String FLAG_USAGE = "flagUsage";
+  /** Attributes and results of open evaluation sessions. */
+  public static final String SESSIONS = "sessions";
+  /** Change numbers and update times kept to detect definition updates and measure freshness. */
+  public static final String DEFINITION_CHANGES = "definitionChanges";
+  /** Deduplication filters and counters of track policies. */
+  public static final String TRACK_POLICIES = "trackPolicies";
+  /** Aggregated track events waiting to be sent. */
+  public static final String TRACK_AGGREGATES = "trackAggregates";
+
+  private final Map<String, Long> components;
+  private final Map<String, Long> flags;
+  private final long total;
+  private final long clientRegistry;
+  private final long offHeap;
+  private final long limit;
+  private final long evicted;
+
+  MemoryReport(Map<String, Long> components, Map<String, Long> flags, long clientRegistry, long offHeap, long limit,
+               long evicted) {
+    this.components = Collections.unmodifiableMap(new TreeMap<>(components));
+    this.flags = Collections.unmodifiableMap(new TreeMap<>(flags));
+    this.total = components.values().stream().mapToLong(Long::longValue).sum();
+    this.clientRegistry = clientRegistry;
+    this.offHeap = offHeap;
+    this.limit = limit;
+    this.evicted = evicted;
+  }
+
+  /**
+   * @return estimated heap bytes of every component, checked against the limit
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * @return estimated bytes per component, see the constants of this class. Components that are not enabled are not
+   * included.
+   */
+  public Map<String, Long> getComponents() {
+    return components;
+  }
+
+  /**
+   * @return estimated bytes per flag, from the components that keep state per flag: localhost flags, overrides,
+   * impression policy cache and flag usage
+   */
+  public Map<String, Long> getFlags() {
+    return flags;
+  }
+
+  /**
+   * @return estimated bytes of the clients registered for shutdown, shared by every provider of the JVM, so not part of
+   * the total of any of them
+   */
+  public long getClientRegistry() {
+    return clientRegistry;
+  }
+
+  /**
+   * @return bytes held outside of the heap, by the write buffer of the evaluation recorder; not part of the total
+   */
+  public long getOffHeap() {
+    return offHeap;
+  }
+
+  /**
+   * @return the configured memory limit in bytes, 0 if none
+   */
+  public long getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return estimated bytes evicted to get under the limit when this report was taken
+   */
+  public long getEvicted() {
+    return evicted;
+  }
+
+  /**
+   * @return true if the provider is still over its limit after evicting, because what it holds can't be evicted
+   * (localhost flags, overrides, sessions and deduplication filters)
+   */
+  public boolean isOverLimit() {
+    return limit > 0 && total > limit;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("total=%d, limit=%d, evicted=%d, components=%s, clientRegistry=%d, offHeap=%d", total, limit,
+            evicted, components, clientRegistry, offHeap);
+  }
+}
@@ -0,0 +1,166 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableStructure;
+import dev.openfeature.sdk.Value;
+import io.split.client.SplitClient;
+import io.split.client.SplitManager;
+import io.split.client.api.SplitResult;
+import io.split.client.api.SplitView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exercises the provider's evaluation paths before it reports READY, so the first real evaluations after a deploy
+ * don't pay for class loading, JIT compilation and cold caches.
+ * <p>
+ * Every warm-up flag is resolved through all the typed paths (boolean, string, integer, double and object) with
+ * synthetic contexts. Treatments and configs come from the SplitManager when there is one, so parsing runs against the
+ * real definitions. Flags are only evaluated by the SDK through the non-recording client, never through the provider's
+ * own client, so the warm-up doesn't generate impressions.
+ */
+final class ProviderWarmUp {
+  private static final Logger _log = LoggerFactory.getLogger(ProviderWarmUp.class);
+
+  // treatments that cover every typed path when there is no SplitManager to read the real ones from
+  private static final List<SplitResult> SYNTHETIC_RESULTS = List.of(
+          new SplitResult("on", null),
+          new SplitResult("off", "{\"size\": 10}"),
+          new SplitResult("32", null),
+          new SplitResult("1.5", null),
+          new SplitResult("{\"key\": \"value\", \"list\": [1, 2], \"nested\": {\"on\": true}}", null),
+          new SplitResult("control", null));
+
+  private static final int CONTEXTS = 16;
+
+  private final SplitProvider provider;
+  private final SplitManager manager;
+  private final SplitClient nonRecordingClient;
+  private final List<String> flags;
+  private final int iterations;
+  private final long timeoutNanos;
+
+  ProviderWarmUp(SplitProvider provider, SplitManager manager, SplitProviderConfig config) {
+    this.provider = provider;
+    this.manager = manager;
+    this.nonRecordingClient = config.nonRecordingClient();
+    this.flags = config.warmUpFlags();
+    this.iterations = config.warmUpIterations();
+    this.timeoutNanos = config.warmUpTimeout() * 1_000_000L;
+  }
+
+  /**
+   * Runs the warm-up until every iteration is done or the timeout is reached, whichever comes first.
+   *
+   * @return number of flag resolutions performed
+   */
+  long run() {
+    long start = System.nanoTime();
+    long deadline = start + timeoutNanos;
+    Map<String, List<SplitResult>> results = warmUpResults(deadline);
+    List<EvaluationContext> contexts = syntheticContexts();
+
+    long resolutions = 0;
+    int round = 0;
+    try {
+      rounds:
+      for (; round < iterations && System.nanoTime() - deadline < 0; round++) {
+        EvaluationContext context = contexts.get(round % contexts.size());
+        Map<String, Object> attributes = provider.transformContext(context);
+        for (Map.Entry<String, List<SplitResult>> flag : results.entrySet()) {
+          // a round over every flag of a large environment can take longer than the whole timeout
+          if (System.nanoTime() - deadline >= 0) {
+            break rounds;
+          }
+          if (nonRecordingClient != null && !flag.getKey().isEmpty()) {
+            resolveAllTypes(nonRecordingClient.getTreatmentWithConfig(context.getTargetingKey(), flag.getKey(), attributes));
+            resolutions++;
+          }
+          for (SplitResult result : flag.getValue()) {
+            resolveAllTypes(result);
+            resolutions++;
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      // the warm-up is best effort, it must never prevent the provider from becoming ready
+      _log.warn("Provider warm-up stopped early", e);
+    }
+
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+    if (round < iterations) {
+      _log.info("Provider warm-up reached its time limit after {} of {} rounds ({} resolutions, {} ms)",
+              round, iterations, resolutions, elapsedMillis);
+    } else {
+      _log.info("Provider warm-up done: {} rounds over {} flags ({} resolutions, {} ms)",
+              round, results.size(), resolutions, elapsedMillis);
+    }
+    return resolutions;
+  }
+
+  private void resolveAllTypes(SplitResult result) {
+    resolve(result, Boolean.FALSE, SplitProvider.BOOLEAN_MAPPER);
+    resolve(result, "", SplitProvider.STRING_MAPPER);
+    resolve(result, 0, SplitProvider.INTEGER_MAPPER);
+    resolve(result, 0D, SplitProvider.DOUBLE_MAPPER);
+    resolve(result, new Value(), SplitProvider.OBJECT_MAPPER);
+  }
+
+  private <T> void resolve(SplitResult result, T defaultValue, SplitProvider.Mapper<T> mapper) {
+    try {
+      provider.toProviderEvaluation(result, defaultValue, mapper);
+    } catch (Exception e) {
+      // a treatment that doesn't parse as this type, the error path is warmed up as well
+    }
+  }
+
+  private Map<String, List<SplitResult>> warmUpResults(long deadline) {
+    List<String> names = flags;
+    if (names.isEmpty() && manager != null) {
+      names = manager.splitNames();
+    }
+    Map<String, List<SplitResult>> results = new LinkedHashMap<>();
+    for (String name : names) {
+      if (System.nanoTime() - deadline >= 0) {
+        break;
+      }
+      SplitView view = manager == null ? null : manager.split(name);
+      if (view == null || view.treatments == null || view.treatments.isEmpty()) {
+        results.put(name, SYNTHETIC_RESULTS);
+        continue;
+      }
+      List<SplitResult> viewResults = new ArrayList<>(view.treatments.size());
+      for (String treatment : view.treatments) {
+        String config = view.configs == null ? null : view.configs.get(treatment);
+        viewResults.add(new SplitResult(treatment, config));
+      }
+      results.put(name, viewResults);
+    }
+    if (results.isEmpty()) {
+      // nothing to read flags from, still warm the provider's own paths
+      results.put("", SYNTHETIC_RESULTS);
+    }
+    return results;
+  }
+
+  private static List<EvaluationContext> syntheticContexts() {
+    List<EvaluationContext> contexts = new ArrayList<>(CONTEXTS);
+    for (int i = 0; i < CONTEXTS; i++) {
+      MutableContext context = new MutableContext("openfeature-warm-up-" + i);
+      context.add("string", "value-" + i);
+      context.add("integer", i);
+      context.add("double", i / 2D);
+      context.add("boolean", i % 2 == 0);
+      context.add("list", List.of(new Value("a"), new Value(i)));
+      context.add("structure", new MutableStructure(Map.of("nested", new Value(i))));
+      contexts.add(context);
+    }
+    return contexts;
+  }
+}
@@ -0,0 +1,55 @@
+package io.split.openfeature;
+
+import java.util.List;
+
+/**
+ * Outcome of a bounded shutdown: the clients that were destroyed (and so flushed their pending impressions and
+ * events) before the deadline, and those still flushing or failing when it was reached, whose pending data may be lost.
+ * Aggregated track events are sent to their client right before it is destroyed.
+ */
+public class ShutdownReport {
+
+  private final List<String> flushed;
+  private final List<String> dropped;
+  private final long elapsedMillis;
+  private final int aggregatedEvents;
+
+  ShutdownReport(List<String> flushed, List<String> dropped, long elapsedMillis, int aggregatedEvents) {
+    this.flushed = List.copyOf(flushed);
+    this.dropped = List.copyOf(dropped);
+    this.elapsedMillis = elapsedMillis;
+    this.aggregatedEvents = aggregatedEvents;
+  }
+
+  public List<String> flushed() {
+    return flushed;
+  }
+
+  public List<String> dropped() {
+    return dropped;
+  }
+
+  public long elapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * @return number of aggregated track events sent before the clients were destroyed
+   */
+  public int aggregatedEvents() {
+    return aggregatedEvents;
+  }
+
+  /**
+   * @return true if everything was flushed within the deadline
+   */
+  public boolean complete() {
+    return dropped.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("flushed=%s, dropped=%s, aggregatedEvents=%d, elapsed=%d ms", flushed, dropped, aggregatedEvents,
+            elapsedMillis);
+  }
+}
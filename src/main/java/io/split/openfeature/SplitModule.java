@@ -10,48 +10,280 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 public class SplitModule {
   private static final Logger _log = LoggerFactory.getLogger(SplitModule.class);
 
-  private static SplitModule instance = null;
+  private static final class Holder {
+    // initialized once, on the first getInstance, by the class loader, which also publishes it safely
+    static final SplitModule INSTANCE = new SplitModule();
+  }
+
+  // written under the module lock, volatile so providers read it without it
+  private volatile Shared shared;
+
+  private static final IntSupplier NO_FLUSH = () -> 0;
+
+  // clients of every live provider, so they can all be flushed together on shutdown
+  private final Map<SplitClient, Registration> clients = new ConcurrentHashMap<>();
 
-  private SplitClient client;
+  private final AtomicInteger clientSequence = new AtomicInteger();
 
-  private SplitModule() {
+  SplitModule() {
   }
 
+  /**
+   * Creates the shared factory and waits for its client to be ready. Only the first call creates a factory, later and
+   * concurrent calls wait for it and return, until the shared client is shut down.
+   */
   public void init(String apiKey) {
-    SplitClientConfig config = SplitClientConfig.builder()
-      .setBlockUntilReadyTimeout(10000)
-      .build();
-    SplitFactory splitFactory;
-    try {
-      splitFactory = SplitFactoryBuilder.build(apiKey, config);
-    } catch (IOException | URISyntaxException e) {
-      // exception occurred
-      throw new GeneralError("Error occurred creating split factory", e);
+    init(() -> {
+      SplitClientConfig config = SplitClientConfig.builder()
+        .setBlockUntilReadyTimeout(10000)
+        .build();
+      try {
+        return SplitFactoryBuilder.build(apiKey, config);
+      } catch (IOException | URISyntaxException e) {
+        // exception occurred
+        throw new GeneralError("Error occurred creating split factory", e);
+      }
+    });
+  }
+
+  synchronized void init(Supplier<SplitFactory> factorySupplier) {
+    if (shared != null) {
+      return;
     }
-    this.client = splitFactory.client();
+    SplitFactory splitFactory = factorySupplier.get();
+    SplitClient splitClient = splitFactory.client();
     try {
-      this.client.blockUntilReady();
+      splitClient.blockUntilReady();
     } catch (InterruptedException e) {
       _log.error("Interrupted Exception: ", e);
       Thread.currentThread().interrupt();
     } catch (TimeoutException e) {
       throw new GeneralError("Error occurred initializing the client.", e);
+    } finally {
+      // published even when it isn't ready (timeout or interrupt), so later calls reuse this factory instead of
+      // building another one for the same api key; factory and client are published together, in one write
+      this.shared = new Shared(splitFactory, splitClient);
     }
   }
 
   public static SplitModule getInstance() {
-    if (instance == null) {
-      instance = new SplitModule();
-    }
-    return instance;
+    return Holder.INSTANCE;
   }
 
   public io.split.client.SplitClient getClient() {
-    return client;
+    Shared current = shared;
+    return current == null ? null : current.client;
+  }
+
+  public SplitFactory getFactory() {
+    Shared current = shared;
+    return current == null ? null : current.factory;
+  }
+
+  /**
+   * @return the shared factory and its client, read together, null until initialized
+   */
+  Shared shared() {
+    return shared;
+  }
+
+  /**
+   * Registers a provider using the client. Several providers may share a client, it is destroyed when the last one
+   * shuts down.
+   */
+  void register(SplitClient splitClient, Object provider) {
+    register(splitClient, provider, NO_FLUSH);
+  }
+
+  /**
+   * Registers a provider using the client, with a flush of the events the provider holds, run on shutdown within the
+   * deadline.
+   */
+  void register(SplitClient splitClient, Object provider, IntSupplier flush) {
+    clients.compute(splitClient, (c, registration) -> {
+      if (registration == null) {
+        registration = new Registration("client-" + clientSequence.incrementAndGet());
+      }
+      registration.providers.put(provider, flush);
+      return registration;
+    });
+  }
+
+  boolean isRegistered(SplitClient splitClient) {
+    return clients.containsKey(splitClient);
+  }
+
+  /**
+   * @return estimated bytes of the registry of clients, shared by every provider of the JVM
+   */
+  long estimateRegistryBytes() {
+    long bytes = MemoryEstimates.MAP;
+    for (Registration registration : clients.values()) {
+      // names are "client-" and a sequence number, flushes are lambdas capturing their provider
+      bytes += MemoryEstimates.MAP_ENTRY + MemoryEstimates.object(2, 0) + MemoryEstimates.string(registration.name)
+              + MemoryEstimates.map(registration.providers.size())
+              + registration.providers.size() * MemoryEstimates.object(1, 0);
+    }
+    return bytes;
+  }
+
+  /**
+   * Destroys every client registered by a provider, in parallel, waiting at most {@code timeoutMillis} for their
+   * pending impressions and events to be flushed. Returns once every client is done or the deadline is reached,
+   * even if the Split backend is unreachable.
+   *
+   * @param timeoutMillis deadline for the whole shutdown
+   * @return which clients were flushed and which ones were still flushing (or failed) at the deadline
+   */
+  public ShutdownReport shutdown(long timeoutMillis) {
+    List<Shutdown> shutdowns = new ArrayList<>();
+    for (SplitClient splitClient : new ArrayList<>(clients.keySet())) {
+      Registration registration = clients.remove(splitClient);
+      if (registration != null) {
+        shutdowns.add(new Shutdown(registration.name, splitClient, List.copyOf(registration.providers.values()), true));
+      }
+    }
+    return run(shutdowns, timeoutMillis);
+  }
+
+  /**
+   * Shuts down one provider, waiting at most {@code timeoutMillis}: runs its own flush only, and destroys the client
+   * if no other provider uses it.
+   */
+  ShutdownReport shutdown(SplitClient splitClient, Object provider, long timeoutMillis) {
+    IntSupplier[] flush = new IntSupplier[1];
+    String[] name = new String[1];
+    boolean[] last = {true};
+    clients.computeIfPresent(splitClient, (c, registration) -> {
+      name[0] = registration.name;
+      flush[0] = registration.providers.remove(provider);
+      last[0] = registration.providers.isEmpty();
+      return last[0] ? null : registration;
+    });
+    if (name[0] == null) {
+      // not registered, destroyed all the same
+      name[0] = "client-" + clientSequence.incrementAndGet();
+    }
+    List<IntSupplier> flushes = flush[0] == null ? List.of() : List.of(flush[0]);
+    return run(List.of(new Shutdown(name[0], splitClient, flushes, last[0])), timeoutMillis);
+  }
+
+  // the shared client can't be handed to new providers anymore
+  private synchronized void release(SplitClient splitClient) {
+    Shared current = shared;
+    if (current != null && splitClient == current.client) {
+      shared = null;
+    }
+  }
+
+  private ShutdownReport run(List<Shutdown> shutdowns, long timeoutMillis) {
+    long start = System.nanoTime();
+    AtomicInteger aggregatedEvents = new AtomicInteger();
+    Map<String, CompletableFuture<Void>> pending = new LinkedHashMap<>();
+    ExecutorService executor = Executors.newCachedThreadPool(r -> {
+      Thread thread = new Thread(r, "split-provider-shutdown");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (Shutdown shutdown : shutdowns) {
+        if (shutdown.destroy) {
+          release(shutdown.client);
+        }
+        pending.put(shutdown.name, CompletableFuture.runAsync(() -> {
+          for (IntSupplier flush : shutdown.flushes) {
+            try {
+              aggregatedEvents.addAndGet(flush.getAsInt());
+            } catch (RuntimeException e) {
+              _log.error("Error sending aggregated events", e);
+            }
+          }
+          if (shutdown.destroy) {
+            shutdown.client.destroy();
+          }
+        }, executor));
+      }
+
+      CompletableFuture<Void> all = CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]));
+      try {
+        all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        _log.error("Interrupted Exception: ", e);
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        // timed out or a client failed, the report below tells which ones
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    List<String> flushed = new ArrayList<>();
+    List<String> dropped = new ArrayList<>();
+    for (Map.Entry<String, CompletableFuture<Void>> entry : pending.entrySet()) {
+      if (entry.getValue().isDone() && !entry.getValue().isCompletedExceptionally()) {
+        flushed.add(entry.getKey());
+      } else {
+        dropped.add(entry.getKey());
+      }
+    }
+    ShutdownReport report = new ShutdownReport(flushed, dropped, (System.nanoTime() - start) / 1_000_000L,
+            aggregatedEvents.get());
+    if (report.complete()) {
+      _log.info("Split clients shut down: {}", report);
+    } else {
+      _log.warn("Split clients shut down with pending data: {}", report);
+    }
+    return report;
+  }
+
+  static final class Shared {
+    final SplitFactory factory;
+    final SplitClient client;
+
+    Shared(SplitFactory factory, SplitClient client) {
+      this.factory = factory;
+      this.client = client;
+    }
+  }
+
+  private static final class Registration {
+    final String name;
+    // providers using the client, with the flush each runs before the client is destroyed
+    final Map<Object, IntSupplier> providers = new ConcurrentHashMap<>();
+
+    Registration(String name) {
+      this.name = name;
+    }
+  }
+
+  private static final class Shutdown {
+    final String name;
+    final SplitClient client;
+    final List<IntSupplier> flushes;
+    final boolean destroy;
+
+    Shutdown(String name, SplitClient client, List<IntSupplier> flushes, boolean destroy) {
+      this.name = name;
+      this.client = client;
+      this.flushes = flushes;
+      this.destroy = destroy;
+    }
   }
 }
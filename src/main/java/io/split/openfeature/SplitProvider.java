@@ -2,11 +2,12 @@ package io.split.openfeature;
 
 import dev.openfeature.sdk.ErrorCode;
 import dev.openfeature.sdk.EvaluationContext;
-import dev.openfeature.sdk.FeatureProvider;
+import dev.openfeature.sdk.EventProvider;
 import dev.openfeature.sdk.ImmutableMetadata;
 import dev.openfeature.sdk.Metadata;
 import dev.openfeature.sdk.MutableStructure;
 import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.ProviderEventDetails;
 import dev.openfeature.sdk.Reason;
 import dev.openfeature.sdk.TrackingEventDetails;
 import dev.openfeature.sdk.Value;
@@ -15,45 +16,248 @@ import dev.openfeature.sdk.exceptions.OpenFeatureError;
 import dev.openfeature.sdk.exceptions.ParseError;
 import dev.openfeature.sdk.exceptions.TargetingKeyMissingError;
 import io.split.client.SplitClient;
+import io.split.client.SplitFactory;
+import io.split.client.SplitManager;
 import io.split.client.api.SplitResult;
+import io.split.openfeature.capture.EvaluationRecord;
+import io.split.openfeature.capture.EvaluationRecorder;
 import io.split.openfeature.utils.Serialization;
+import io.split.openfeature.utils.TrackingProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class SplitProvider implements FeatureProvider {
+public class SplitProvider extends EventProvider {
   private static final Logger _log = LoggerFactory.getLogger(SplitProvider.class);
 
   private static final String NAME = "Split";
 
   private final SplitClient client;
+  private final SplitManager manager;
+  // registers the client for shutdown, the JVM-wide instance outside of tests
+  private final SplitModule module;
+  private final SplitProviderConfig config;
+  private final FlagUsageTracker usage;
+  private final FreshnessTracker freshness;
+  private final EvaluationRecorder recorder;
+  private final Map<String, TrackFilter> trackFilters;
+  private final TrackAggregator aggregator;
+  private final ImpressionPolicies impressionPolicies;
+  private final Map<Path, FlagTable> localhostTables = new HashMap<>();
+  private volatile FlagTable localhostTable;
+  private LocalhostFileWatcher localhostWatcher;
+  private final AtomicReference<FlagOverrides> overrides = new AtomicReference<>(FlagOverrides.NONE);
+  private LocalhostFileWatcher overridesWatcher;
+
+  private final Set<EvaluationSession> sessions = ConcurrentHashMap.newKeySet();
+  private FlagChangeMonitor changeMonitor;
+  private boolean sessionUpdatesStarted = false;
+  private ScheduledExecutorService scheduler;
 
   public SplitProvider(SplitClient splitClient) {
-    client = splitClient;
-    try {
-      this.client.blockUntilReady();
-    } catch (InterruptedException e) {
-      _log.error("Interrupted Exception: ", e);
-      Thread.currentThread().interrupt();
-    } catch (TimeoutException e) {
-      throw new GeneralError("Error occurred initializing the client.", e);
-    }
+    this(splitClient, SplitProviderConfig.builder().build());
+  }
+
+  public SplitProvider(SplitClient splitClient, SplitProviderConfig config) {
+    this(SplitModule.getInstance(), awaitReady(splitClient), null, config);
+  }
+
+  /**
+   * Registers the client with the given module instead of the JVM-wide one, so it can be dropped with it.
+   */
+  SplitProvider(SplitModule splitModule, SplitClient splitClient, SplitProviderConfig config) {
+    this(splitModule, awaitReady(splitClient), null, config);
+  }
+
+  public SplitProvider(SplitFactory splitFactory, SplitProviderConfig config) {
+    this(SplitModule.getInstance(), awaitReady(splitFactory.client()), splitFactory.manager(), config);
   }
 
   public SplitProvider(String apiKey) {
+    this(apiKey, SplitProviderConfig.builder().build());
+  }
+
+  public SplitProvider(String apiKey, SplitProviderConfig config) {
+    this(initModule(apiKey), config);
+  }
+
+  private SplitProvider(SplitModule splitModule, SplitProviderConfig config) {
+    this(splitModule, splitModule.shared(), config);
+  }
+
+  // client and factory read as one pair, a shutdown in between can't leave a client without its manager
+  private SplitProvider(SplitModule splitModule, SplitModule.Shared shared, SplitProviderConfig config) {
+    this(splitModule, shared == null ? null : shared.client, shared == null ? null : shared.factory.manager(), config);
+  }
+
+  private SplitProvider(SplitModule splitModule, SplitClient splitClient, SplitManager splitManager,
+                        SplitProviderConfig config) {
+    this.module = splitModule;
+    this.client = splitClient;
+    this.manager = splitManager;
+    this.config = config;
+    this.usage = config.flagUsageEnabled() ? new FlagUsageTracker() : null;
+    this.freshness = config.freshnessEnabled() && splitManager != null ? new FreshnessTracker() : null;
+    this.recorder = config.evaluationRecordingFile() == null ? null : openRecorder(config);
+    this.trackFilters = trackFilters(config);
+    this.impressionPolicies = config.impressionPolicies().isEmpty() ? null : new ImpressionPolicies(config.impressionPolicies());
+    this.aggregator = config.aggregatedTrackEvents().isEmpty() ? null : new TrackAggregator(config.aggregatedTrackEvents());
+    if (!config.localhostFiles().isEmpty()) {
+      watchLocalhostFiles(config.localhostFiles());
+    }
+    if (config.overridesFile() != null) {
+      watchOverridesFile(config.overridesFile());
+    }
+    if (aggregator != null) {
+      module.register(splitClient, this, this::flushTrackAggregates);
+      scheduler().scheduleAtFixedRate(this::sendTrackAggregates,
+              config.trackAggregationInterval(), config.trackAggregationInterval(), TimeUnit.MILLISECONDS);
+    } else {
+      module.register(splitClient, this);
+    }
+    if (freshness != null) {
+      startChangePolling();
+    }
+    if ((usage != null || freshness != null) && config.flagUsageDumpInterval() > 0) {
+      scheduler().scheduleWithFixedDelay(this::dumpUsage,
+              config.flagUsageDumpInterval(), config.flagUsageDumpInterval(), TimeUnit.MILLISECONDS);
+    }
+    if (config.memoryLimit() > 0) {
+      scheduler().scheduleWithFixedDelay(this::checkMemory,
+              config.memoryCheckInterval(), config.memoryCheckInterval(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static SplitModule initModule(String apiKey) {
     SplitModule splitModule = SplitModule.getInstance();
     if (splitModule.getClient() == null) {
       splitModule.init(apiKey);
     }
-    client = splitModule.getClient();
+    return splitModule;
+  }
+
+  private static EvaluationRecorder openRecorder(SplitProviderConfig config) {
+    try {
+      return new EvaluationRecorder(config.evaluationRecordingFile(), config.evaluationSampleRate());
+    } catch (IOException e) {
+      throw new GeneralError("Error opening the evaluation recording " + config.evaluationRecordingFile(), e);
+    }
+  }
+
+  private static Map<String, TrackFilter> trackFilters(SplitProviderConfig config) {
+    Map<String, TrackFilter> filters = new HashMap<>();
+    config.trackPolicies().forEach((eventName, policy) ->
+            filters.put(eventName, new TrackFilter(eventName, policy, config.trackDedupCapacity())));
+    return Map.copyOf(filters);
+  }
+
+  private void watchLocalhostFiles(List<Path> files) {
+    List<Path> paths = files.stream().map(file -> file.toAbsolutePath().normalize()).collect(Collectors.toList());
+    try {
+      for (Path file : paths) {
+        localhostTables.put(file, FlagTable.fromYaml(file));
+      }
+      localhostTable = mergeLocalhostTables();
+      localhostWatcher = new LocalhostFileWatcher(paths, this::reloadLocalhostFile);
+    } catch (IOException e) {
+      throw new GeneralError("Error loading localhost files " + files, e);
+    }
+  }
+
+  /**
+   * Parses a changed localhost file again and swaps in the new flags. Evaluations keep using the previous table until
+   * the new one is complete. If the file is empty or can't be parsed (it may be half written) the previous flags are
+   * kept.
+   */
+  private synchronized void reloadLocalhostFile(Path file) {
+    FlagTable table;
+    try {
+      if (Files.size(file) == 0) {
+        // truncated by a writer that hasn't written the new content yet
+        return;
+      }
+      table = FlagTable.fromYaml(file);
+    } catch (IOException e) {
+      _log.warn("Error parsing localhost file " + file + ", keeping the previous flags", e);
+      return;
+    }
+    localhostTables.put(file, table);
+    FlagTable previous = localhostTable;
+    FlagTable current = mergeLocalhostTables();
+    localhostTable = current;
+    Set<String> changed = previous.changedFlags(current);
+    if (!changed.isEmpty()) {
+      _log.info("Localhost file {} changed flags {}", file, changed);
+      reevaluateSessions(changed);
+      emitProviderConfigurationChanged(ProviderEventDetails.builder()
+              .flagsChanged(changed.stream().sorted().collect(Collectors.toList()))
+              .message("Localhost file " + file + " changed")
+              .build());
+    }
+  }
+
+  private void watchOverridesFile(Path file) {
+    Path path = file.toAbsolutePath().normalize();
+    try {
+      overrides.set(FlagOverrides.fromYaml(path));
+      overridesWatcher = new LocalhostFileWatcher(List.of(path), this::reloadOverridesFile);
+    } catch (IOException e) {
+      throw new GeneralError("Error loading overrides file " + file, e);
+    }
+  }
+
+  private void reloadOverridesFile(Path file) {
+    try {
+      if (Files.size(file) == 0) {
+        return;
+      }
+      setOverrides(FlagOverrides.fromYaml(file));
+    } catch (IOException e) {
+      _log.warn("Error parsing overrides file " + file + ", keeping the previous overrides", e);
+    }
+  }
+
+  // files are merged in the configured order, so the last one wins
+  private FlagTable mergeLocalhostTables() {
+    FlagTable merged = FlagTable.EMPTY;
+    for (Path file : config.localhostFiles()) {
+      merged = merged.merge(localhostTables.get(file.toAbsolutePath().normalize()));
+    }
+    return merged;
+  }
+
+  // before the provider registers itself and starts its threads, so a timeout leaves nothing behind
+  private static SplitClient awaitReady(SplitClient splitClient) {
+    try {
+      splitClient.blockUntilReady();
+    } catch (InterruptedException e) {
+      _log.error("Interrupted Exception: ", e);
+      Thread.currentThread().interrupt();
+    } catch (TimeoutException e) {
+      throw new GeneralError("Error occurred initializing the client.", e);
+    }
+    return splitClient;
   }
 
   @Override
@@ -61,52 +265,76 @@ public class SplitProvider implements FeatureProvider {
     return () -> NAME;
   }
 
+  @Override
+  public void initialize(EvaluationContext evaluationContext) {
+    LifecycleEvent event = new LifecycleEvent();
+    event.begin();
+    boolean complete = false;
+    try {
+      if (config.warmUpEnabled()) {
+        new ProviderWarmUp(this, manager, config).run();
+      }
+      complete = true;
+    } finally {
+      event.complete(LifecycleEvent.INITIALIZE, complete);
+    }
+  }
+
+  static final Mapper<Boolean> BOOLEAN_MAPPER = s -> {
+    // if treatment is "on" or "true" we treat that as true
+    // if it is "off" or "false" we treat it as false
+    // if it is some other value we throw an error (sdk will catch it and throw default treatment)
+    if (Boolean.parseBoolean(s) || s.equals("on")) {
+      return true;
+    } else if (s.equalsIgnoreCase("false") || s.equals("off")) {
+      return false;
+    } else {
+      throw new ParseError();
+    }
+  };
+
+  static final Mapper<String> STRING_MAPPER = s -> s;
+
+  static final Mapper<Integer> INTEGER_MAPPER = Integer::valueOf;
+
+  static final Mapper<Double> DOUBLE_MAPPER = s -> {
+    if (s == null) throw new NumberFormatException("null");
+    return Double.valueOf(s.trim());
+  };
+
+  static final Mapper<Value> OBJECT_MAPPER = s -> {
+    Map<String, Object> rawMap = Serialization.stringToMap(s);
+    return mapToValue(rawMap);
+  };
+
   @Override
   public ProviderEvaluation<Boolean> getBooleanEvaluation(
           String key, Boolean defaultVal, EvaluationContext ctx) {
-    return getEvaluation(key, defaultVal, ctx, s -> {
-      // if treatment is "on" or "true" we treat that as true
-      // if it is "off" or "false" we treat it as false
-      // if it is some other value we throw an error (sdk will catch it and throw default treatment)
-      if (Boolean.parseBoolean(s) || s.equals("on")) {
-        return true;
-      } else if (s.equalsIgnoreCase("false") || s.equals("off")) {
-        return false;
-      } else {
-        throw new ParseError();
-      }
-    }, "Boolean");
+    return getEvaluation(key, defaultVal, ctx, BOOLEAN_MAPPER, "Boolean");
   }
 
   @Override
   public ProviderEvaluation<String> getStringEvaluation(
           String key, String defaultVal, EvaluationContext ctx) {
-    return getEvaluation(key, defaultVal, ctx, s -> s, "String");
+    return getEvaluation(key, defaultVal, ctx, STRING_MAPPER, "String");
   }
 
   @Override
   public ProviderEvaluation<Integer> getIntegerEvaluation(
           String key, Integer defaultVal, EvaluationContext ctx) {
-    return getEvaluation(key, defaultVal, ctx, Integer::valueOf, "Integer");
+    return getEvaluation(key, defaultVal, ctx, INTEGER_MAPPER, "Integer");
   }
 
   @Override
   public ProviderEvaluation<Double> getDoubleEvaluation(
           String key, Double defaultTreatment, EvaluationContext ctx) {
-
-    return getEvaluation(key, defaultTreatment, ctx, s -> {
-      if (s == null) throw new NumberFormatException("null");
-      return Double.valueOf(s.trim());
-    }, "Double");
+    return getEvaluation(key, defaultTreatment, ctx, DOUBLE_MAPPER, "Double");
   }
 
   @Override
   public ProviderEvaluation<Value> getObjectEvaluation(
           String key, Value defaultVal, EvaluationContext ctx) {
-    return getEvaluation(key, defaultVal, ctx, s -> {
-      Map<String, Object> rawMap = Serialization.stringToMap(s);
-      return mapToValue(rawMap);
-    }, "Object");
+    return getEvaluation(key, defaultVal, ctx, OBJECT_MAPPER, "Object");
   }
 
   @FunctionalInterface
@@ -121,32 +349,67 @@ public class SplitProvider implements FeatureProvider {
           Mapper<T> mapper,
           String typeLabel
   ) {
+    EvaluationEvent event = new EvaluationEvent();
+    event.begin();
+    ProviderEvaluation<T> evaluation = null;
+    OpenFeatureError error = null;
     try {
-      SplitResult evaluated = evaluateTreatment(key, ctx);
-      String treatment = evaluated.treatment();
-      String config = evaluated.config();
-      ImmutableMetadata metadata = ImmutableMetadata.builder().addString("config", config).build();
-
-      if (noTreatment(treatment)) {
-        return constructProviderEvaluation(
-                defaultValue, treatment, Reason.DEFAULT, ErrorCode.FLAG_NOT_FOUND, metadata);
+      FlagOverrides current = overrides.get();
+      SplitResult overridden = current.isEmpty() ? null : current.table().get(key, targetingKey(ctx));
+      if (overridden != null) {
+        recordUsage(key, overridden.treatment());
+        evaluation = toProviderEvaluation(overridden, defaultValue, mapper, FlagOverrides.REASON);
+        return evaluation;
       }
-      T mapped = mapper.map(treatment);
-      return constructProviderEvaluation(mapped, treatment, metadata);
-
+      SplitResult evaluated = evaluateTreatment(key, ctx, typeLabel);
+      recordUsage(key, evaluated.treatment());
+      evaluation = toProviderEvaluation(evaluated, defaultValue, mapper);
+      return evaluation;
     } catch (OpenFeatureError e) {
+      error = e;
       throw e;
     } catch (Exception e) {
-      throw new GeneralError(String.format("Error getting %s evaluation", typeLabel), e);
+      error = new GeneralError(String.format("Error getting %s evaluation", typeLabel), e);
+      throw error;
+    } finally {
+      event.complete(key, typeLabel, evaluation, error, false);
     }
   }
 
+  /**
+   * Turns a Split result into the provider evaluation of the requested type.
+   */
+  <T> ProviderEvaluation<T> toProviderEvaluation(SplitResult evaluated, T defaultValue, Mapper<T> mapper) throws Exception {
+    return toProviderEvaluation(evaluated, defaultValue, mapper, Reason.TARGETING_MATCH.name());
+  }
+
+  <T> ProviderEvaluation<T> toProviderEvaluation(SplitResult evaluated, T defaultValue, Mapper<T> mapper, String matchReason)
+          throws Exception {
+    String treatment = evaluated.treatment();
+    String config = evaluated.config();
+    ImmutableMetadata metadata = ImmutableMetadata.builder().addString("config", config).build();
+
+    if (noTreatment(treatment)) {
+      return constructProviderEvaluation(
+              defaultValue, treatment, Reason.DEFAULT.name(), ErrorCode.FLAG_NOT_FOUND, metadata);
+    }
+    T mapped = mapper.map(treatment);
+    return constructProviderEvaluation(mapped, treatment, matchReason, null, metadata);
+  }
+
   @Override
   public void track(String eventName, EvaluationContext context, TrackingEventDetails details) {
+    TrackEvent event = new TrackEvent();
+    event.begin();
 
-    // targetingKey is always required
+    // targetingKey is always required, the ambient context can give it
     String key = context.getTargetingKey();
-    if (key == null || key.isEmpty()) throw new TargetingKeyMissingError();
+    AmbientContext ambient = null;
+    if (key == null || key.isEmpty()) {
+      ambient = AmbientContext.current();
+      if (ambient == null) throw new TargetingKeyMissingError();
+      key = ambient.targetingKey();
+    }
 
     // eventName is always required
     if (eventName == null || eventName.isBlank()) throw new GeneralError("Missing eventName, required to track");
@@ -154,17 +417,362 @@ public class SplitProvider implements FeatureProvider {
     // trafficType is always required
     Value ttVal = context.getValue("trafficType");
     String trafficType = (ttVal != null && !ttVal.isNull() && ttVal.isString()) ? ttVal.asString() : null;
+    if (trafficType == null && ambient != null && ambient.attributes().get("trafficType") instanceof String) {
+      trafficType = (String) ambient.attributes().get("trafficType");
+    }
     if (trafficType == null || trafficType.isBlank()) throw new GeneralError("Missing trafficType variable, required to track");
 
+    // sampled out and repeated events are dropped before their properties are converted
+    TrackFilter filter = trackFilters.get(eventName);
+    if (filter != null && !filter.accept(key)) {
+      event.complete(eventName, trafficType, 0, 0, false);
+      return;
+    }
+
     double value = 0;
-    Map<String, Object> attributes = new HashMap<>();
     if (details != null) {
       Optional<Number> optionalValue = details.getValue();
       value = optionalValue.orElse(0).doubleValue();
-      attributes = details.asObjectMap();
     }
+    if (filter != null) {
+      value = filter.weigh(value);
+    }
+    if (aggregator != null && aggregator.aggregates(eventName)) {
+      aggregator.record(key, trafficType, eventName, value);
+      event.complete(eventName, trafficType, value, 0, true);
+      return;
+    }
+
+    Map<String, Object> attributes = Map.of();
+    if (details != null) {
+      attributes = TrackingProperties.toProperties(details, config.trackNestedPolicy(), config.trackMaxProperties(),
+              config.trackMaxPropertiesSize());
+    }
+
+    boolean accepted = client.track(key, trafficType, eventName, value, attributes);
+    event.complete(eventName, trafficType, value, attributes.size(), accepted);
+  }
+
+  /**
+   * Replaces the overrides, atomically. Evaluations already running finish with the previous ones, open sessions are
+   * re-evaluated. Emits PROVIDER_CONFIGURATION_CHANGED with the flags whose overrides changed.
+   *
+   * @param flagOverrides overrides to apply, {@link FlagOverrides#NONE} to remove them all
+   */
+  public void setOverrides(FlagOverrides flagOverrides) {
+    FlagOverrides next = flagOverrides == null ? FlagOverrides.NONE : flagOverrides;
+    FlagOverrides previous = overrides.getAndSet(next);
+    Set<String> changed = previous.table().changedFlags(next.table());
+    if (!changed.isEmpty()) {
+      _log.info("Overrides changed for flags {}", changed);
+      reevaluateSessions(changed);
+      emitProviderConfigurationChanged(ProviderEventDetails.builder()
+              .flagsChanged(changed.stream().sorted().collect(Collectors.toList()))
+              .message("Overrides changed")
+              .build());
+    }
+  }
+
+  public FlagOverrides getOverrides() {
+    return overrides.get();
+  }
+
+  /**
+   * Sends the aggregated track events recorded since the last flush, see
+   * {@link SplitProviderConfig.Builder#aggregateTrackEvents}. They are also sent periodically and on shutdown.
+   *
+   * @return number of events sent
+   */
+  public int flushTrackAggregates() {
+    return aggregator == null ? 0 : aggregator.flush(client);
+  }
+
+  private void sendTrackAggregates() {
+    try {
+      flushTrackAggregates();
+    } catch (RuntimeException e) {
+      _log.error("Error sending aggregated events", e);
+    }
+  }
+
+  /**
+   * Evaluates the given flags for one context and keeps the results in memory for a long-lived session.
+   * The session is updated when the SDK applies new definitions for its flags, see {@link EvaluationSession}.
+   *
+   * @param context context of the session, it must have a targeting key
+   * @param flags flags served by the session
+   * @return the session, which must be closed once it is no longer needed
+   */
+  public EvaluationSession openSession(EvaluationContext context, List<String> flags) {
+    String id = context.getTargetingKey();
+    if (id == null || id.isEmpty()) {
+      // targeting key is always required
+      throw new TargetingKeyMissingError();
+    }
+    EvaluationSession session = new EvaluationSession(this, id, transformContext(context), flags);
+    sessions.add(session);
+    startSessionUpdates();
+    return session;
+  }
+
+  /**
+   * Evaluates the given flags for every row, in parallel, and hands the results to the sink as they are computed.
+   * Rows are read as they are needed and at most a few chunks of them are held in memory, so the source can be
+   * arbitrarily large. Evaluations go through the non-recording client and don't generate impressions; they are not
+   * counted in the flag usage either.
+   *
+   * @param rows targeting keys and attributes to evaluate
+   * @param flags flags evaluated for every row
+   * @param sink receives the results, concurrently, see {@link BatchSink}
+   * @return number of rows evaluated and elapsed time
+   * @throws GeneralError if no non-recording client is configured, or if an evaluation or the sink fails
+   */
+  public BatchReport evaluateBatch(Iterator<BatchRow> rows, List<String> flags, BatchSink sink) {
+    SplitClient nonRecordingClient = config.nonRecordingClient();
+    if (nonRecordingClient == null) {
+      throw new GeneralError("Batch evaluation requires a nonRecordingClient, so that it doesn't generate impressions");
+    }
+    return new BatchEvaluator(nonRecordingClient, config.batchParallelism(), config.batchChunkSize()).run(rows, flags, sink);
+  }
+
+  public BatchReport evaluateBatch(Stream<BatchRow> rows, List<String> flags, BatchSink sink) {
+    return evaluateBatch(rows.iterator(), flags, sink);
+  }
+
+  void closeSession(EvaluationSession session) {
+    sessions.remove(session);
+  }
+
+  /**
+   * Evaluates flags for a session the way single evaluations are: overrides first, then localhost flags, then the
+   * client.
+   */
+  Map<String, SplitResult> evaluateSession(String key, List<String> flags, Map<String, Object> attributes) {
+    FlagOverrides currentOverrides = overrides.get();
+    FlagTable table = localhostTable;
+    Map<String, SplitResult> results = new HashMap<>();
+    List<String> toEvaluate = new ArrayList<>();
+    for (String flag : flags) {
+      SplitResult overridden = currentOverrides.isEmpty() ? null : currentOverrides.table().get(flag, key);
+      if (overridden != null) {
+        results.put(flag, overridden);
+      } else if (table != null) {
+        SplitResult result = table.get(flag, key);
+        results.put(flag, result == null ? FlagTable.CONTROL : result);
+      } else {
+        toEvaluate.add(flag);
+      }
+    }
+    if (!toEvaluate.isEmpty()) {
+      results.putAll(client.getTreatmentsWithConfig(key, toEvaluate, attributes));
+    }
+    return results;
+  }
+
+  // on the scheduler thread, where session listeners are notified
+  private void reevaluateSessions(Set<String> changed) {
+    if (!sessions.isEmpty()) {
+      scheduler().execute(() -> sessions.forEach(session -> session.onFlagsChanged(changed)));
+    }
+  }
+
+  private synchronized void startSessionUpdates() {
+    if (sessionUpdatesStarted) {
+      return;
+    }
+    sessionUpdatesStarted = true;
+    startChangePolling();
+    if (config.sessionRefreshInterval() > 0) {
+      scheduler().scheduleWithFixedDelay(this::refreshSessions,
+              config.sessionRefreshInterval(), config.sessionRefreshInterval(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  // shared by sessions and freshness, started by whichever needs it first
+  private synchronized void startChangePolling() {
+    if (changeMonitor != null || manager == null) {
+      return;
+    }
+    changeMonitor = new FlagChangeMonitor(manager);
+    changeMonitor.poll();
+    if (freshness != null) {
+      freshness.record(Set.of(), changeMonitor.changeNumbers(), System.currentTimeMillis());
+    }
+    scheduler().scheduleWithFixedDelay(this::pollFlagChanges,
+            config.changePollInterval(), config.changePollInterval(), TimeUnit.MILLISECONDS);
+  }
+
+  private void pollFlagChanges() {
+    try {
+      Set<String> changed = changeMonitor.poll();
+      if (freshness != null) {
+        freshness.record(changed, changeMonitor.changeNumbers(), System.currentTimeMillis());
+      }
+      if (!changed.isEmpty()) {
+        sessions.forEach(session -> session.onFlagsChanged(changed));
+      }
+    } catch (RuntimeException e) {
+      _log.error("Error checking for flag updates", e);
+    }
+  }
 
-    client.track(key, trafficType, eventName, value, attributes);
+  private void refreshSessions() {
+    try {
+      sessions.forEach(EvaluationSession::refresh);
+    } catch (RuntimeException e) {
+      _log.error("Error refreshing sessions", e);
+    }
+  }
+
+  synchronized ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "split-provider-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return scheduler;
+  }
+
+  /**
+   * Usage of every flag evaluated through this provider, including flags known to the SplitManager that were never
+   * evaluated. Empty unless flag usage telemetry is enabled, see {@link SplitProviderConfig.Builder#flagUsage(boolean)}.
+   *
+   * @return usage per flag name
+   */
+  public Map<String, FlagUsage> getFlagUsage() {
+    return usage == null ? Map.of() : usage.snapshot(manager);
+  }
+
+  /**
+   * Events passed and dropped for every event name with a {@link TrackPolicy}, see
+   * {@link SplitProviderConfig.Builder#trackPolicy(String, TrackPolicy)}.
+   *
+   * @return counters per event name
+   */
+  public Map<String, TrackStats> getTrackStats() {
+    Map<String, TrackStats> stats = new TreeMap<>();
+    trackFilters.forEach((eventName, filter) -> stats.put(eventName, filter.snapshot()));
+    return stats;
+  }
+
+  /**
+   * Freshness of the flag definitions of this provider's factory. Null unless freshness tracking is enabled and the
+   * provider was created with a factory or an API key, see {@link SplitProviderConfig.Builder#freshness(boolean)}.
+   */
+  public Freshness getFreshness() {
+    return freshness == null ? null : freshness.snapshot(System.currentTimeMillis());
+  }
+
+  /**
+   * Estimates the memory held by this provider, per component and per flag. If a memory limit is configured and the
+   * provider is over it, evicts from its caches first, see {@link SplitProviderConfig.Builder#memoryLimit(long)}.
+   */
+  public synchronized MemoryReport getMemoryReport() {
+    Map<String, Long> components = new HashMap<>();
+    Map<String, Long> flags = new HashMap<>();
+    long total = measureMemory(components, flags);
+    long limit = config.memoryLimit();
+    long evicted = 0;
+    if (limit > 0 && total > limit) {
+      evictMemory(total - limit);
+      components.clear();
+      flags.clear();
+      evicted = Math.max(0, total - measureMemory(components, flags));
+    }
+    return new MemoryReport(components, flags, module.estimateRegistryBytes(),
+            recorder == null ? 0 : recorder.bufferSize(), limit, evicted);
+  }
+
+  private long measureMemory(Map<String, Long> components, Map<String, Long> flags) {
+    FlagTable localhost = localhostTable;
+    if (localhost != null) {
+      // the merged table shares its flags with the table of each file, only their maps are counted
+      long bytes = addFlagBytes(localhost.estimateBytesPerFlag(), flags);
+      for (FlagTable table : localhostTables.values()) {
+        bytes += MemoryEstimates.map(table.flagNames().size());
+      }
+      components.put(MemoryReport.LOCALHOST_FLAGS, bytes);
+    }
+    FlagOverrides current = overrides.get();
+    if (!current.isEmpty()) {
+      components.put(MemoryReport.OVERRIDES, addFlagBytes(current.table().estimateBytesPerFlag(), flags));
+    }
+    if (impressionPolicies != null) {
+      components.put(MemoryReport.IMPRESSION_POLICY_CACHE, addFlagBytes(impressionPolicies.estimateBytesPerFlag(), flags));
+    }
+    if (usage != null) {
+      components.put(MemoryReport.FLAG_USAGE, addFlagBytes(usage.estimateBytesPerFlag(), flags));
+    }
+    if (!sessions.isEmpty()) {
+      components.put(MemoryReport.SESSIONS, sessions.stream().mapToLong(EvaluationSession::estimateBytes).sum());
+    }
+    if (changeMonitor != null || freshness != null) {
+      components.put(MemoryReport.DEFINITION_CHANGES, (changeMonitor == null ? 0 : changeMonitor.estimateBytes())
+              + (freshness == null ? 0 : freshness.estimateBytes()));
+    }
+    if (!trackFilters.isEmpty()) {
+      components.put(MemoryReport.TRACK_POLICIES, trackFilters.values().stream().mapToLong(TrackFilter::estimateBytes).sum());
+    }
+    if (aggregator != null) {
+      components.put(MemoryReport.TRACK_AGGREGATES, aggregator.estimateBytes());
+    }
+    return components.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  private static long addFlagBytes(Map<String, Long> bytesPerFlag, Map<String, Long> flags) {
+    long bytes = 0;
+    for (Map.Entry<String, Long> entry : bytesPerFlag.entrySet()) {
+      flags.merge(entry.getKey(), entry.getValue(), Long::sum);
+      bytes += entry.getValue();
+    }
+    return bytes;
+  }
+
+  // cheapest to lose first: resolutions are recomputed and aggregates are sent, usage counters are lost
+  private void evictMemory(long excess) {
+    long freed = 0;
+    if (impressionPolicies != null) {
+      freed += impressionPolicies.estimateBytesPerFlag().values().stream().mapToLong(Long::longValue).sum();
+      impressionPolicies.clearCache();
+    }
+    if (freed < excess && aggregator != null) {
+      long before = aggregator.estimateBytes();
+      sendTrackAggregates();
+      freed += Math.max(0, before - aggregator.estimateBytes());
+    }
+    if (freed < excess && usage != null) {
+      usage.evictLeastRecent(excess - freed);
+    }
+  }
+
+  private void checkMemory() {
+    try {
+      MemoryReport report = getMemoryReport();
+      if (report.isOverLimit()) {
+        _log.warn("Provider memory over its limit after evicting: {}", report);
+      } else if (report.getEvicted() > 0) {
+        _log.info("Evicted {} bytes to stay under the provider memory limit of {}", report.getEvicted(), report.getLimit());
+      }
+    } catch (RuntimeException e) {
+      _log.error("Error checking the provider memory", e);
+    }
+  }
+
+  private void dumpUsage() {
+    if (usage != null) {
+      usage.dump(manager);
+    }
+    if (freshness != null) {
+      _log.info("Definition freshness: {}", getFreshness());
+    }
+  }
+
+  void recordUsage(String flag, String treatment) {
+    if (usage != null) {
+      usage.record(flag, treatment);
+    }
   }
 
   public Map<String, Object> transformContext(EvaluationContext context) {
@@ -173,33 +781,100 @@ public class SplitProvider implements FeatureProvider {
 
   @Override
   public void shutdown() {
-    client.destroy();
+    shutdown(config.shutdownTimeout());
   }
 
-  private SplitResult evaluateTreatment(String key, EvaluationContext evaluationContext) {
+  /**
+   * Destroys the client, flushing its pending impressions and events, and returns within {@code timeoutMillis}
+   * even if the flush can't complete. Use {@link SplitModule#shutdown(long)} to flush every provider in parallel.
+   *
+   * @param timeoutMillis deadline for the flush
+   * @return whether the client was flushed within the deadline
+   */
+  public ShutdownReport shutdown(long timeoutMillis) {
+    synchronized (this) {
+      if (scheduler != null) {
+        scheduler.shutdownNow();
+      }
+      if (localhostWatcher != null) {
+        localhostWatcher.close();
+      }
+      if (overridesWatcher != null) {
+        overridesWatcher.close();
+      }
+    }
+    sessions.clear();
+    if (recorder != null) {
+      recorder.close();
+    }
+    LifecycleEvent event = new LifecycleEvent();
+    event.begin();
+    ShutdownReport report = module.shutdown(client, this, timeoutMillis);
+    event.complete(LifecycleEvent.SHUTDOWN, report.complete());
+    super.shutdown();
+    return report;
+  }
+
+  private SplitResult evaluateTreatment(String key, EvaluationContext evaluationContext, String typeLabel) {
     String id = evaluationContext.getTargetingKey();
+    Map<String, Object> attributes;
     if (id == null || id.isEmpty()) {
-      // targeting key is always required
-      throw new TargetingKeyMissingError();
+      // targeting key is always required, the ambient context can give it
+      AmbientContext ambient = AmbientContext.current();
+      if (ambient == null) {
+        throw new TargetingKeyMissingError();
+      }
+      id = ambient.targetingKey();
+      attributes = ambientAttributes(ambient, evaluationContext);
+    } else {
+      attributes = transformContext(evaluationContext);
+    }
+    if (recorder != null) {
+      recorder.record(EvaluationRecord.Type.fromLabel(typeLabel), key, id, attributes);
+    }
+    FlagTable table = localhostTable;
+    if (table != null) {
+      SplitResult result = table.get(key, id);
+      return result == null ? FlagTable.CONTROL : result;
+    }
+    if (impressionPolicies != null && !impressionPolicies.recordImpression(key)) {
+      return config.nonRecordingClient().getTreatmentWithConfig(id, key, attributes);
     }
-    Map<String, Object> attributes = transformContext(evaluationContext);
     return client.getTreatmentWithConfig(id, key, attributes);
   }
 
-  private boolean noTreatment(String treatment) {
-    return treatment == null || treatment.isEmpty() || treatment.equals("control");
+  private static String targetingKey(EvaluationContext evaluationContext) {
+    String id = evaluationContext.getTargetingKey();
+    if (id == null || id.isEmpty()) {
+      AmbientContext ambient = AmbientContext.current();
+      if (ambient == null) {
+        throw new TargetingKeyMissingError();
+      }
+      id = ambient.targetingKey();
+    }
+    return id;
   }
 
-  private <T> ProviderEvaluation<T> constructProviderEvaluation(T value, String variant, ImmutableMetadata metadata) {
-    return constructProviderEvaluation(value, variant, Reason.TARGETING_MATCH, null, metadata);
+  // attributes of the ambient context are used as they are, unless the call has attributes of its own
+  private Map<String, Object> ambientAttributes(AmbientContext ambient, EvaluationContext evaluationContext) {
+    if (evaluationContext.isEmpty()) {
+      return ambient.attributes();
+    }
+    Map<String, Object> attributes = new HashMap<>(ambient.attributes());
+    attributes.putAll(transformContext(evaluationContext));
+    return attributes;
+  }
+
+  private boolean noTreatment(String treatment) {
+    return treatment == null || treatment.isEmpty() || treatment.equals("control");
   }
 
-  private <T> ProviderEvaluation<T> constructProviderEvaluation(T value, String variant, Reason reason, ErrorCode errorCode, ImmutableMetadata metadata) {
+  private <T> ProviderEvaluation<T> constructProviderEvaluation(T value, String variant, String reason, ErrorCode errorCode, ImmutableMetadata metadata) {
     ProviderEvaluation.ProviderEvaluationBuilder<T> builder = ProviderEvaluation.builder();
     return builder
       .value(value)
       .flagMetadata(metadata)
-      .reason(reason.name())
+      .reason(reason)
       .variant(variant)
       .errorCode(errorCode)
       .build();
@@ -210,14 +885,14 @@ public class SplitProvider implements FeatureProvider {
    * @param map a Map String->Object, where object is NOT Value or Structure
    * @return Value representing the map passed in
    */
-  private Value mapToValue(Map<String, Object> map) {
+  private static Value mapToValue(Map<String, Object> map) {
     return new Value(
       new MutableStructure(
         map.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> objectToValue(e.getValue())))));
   }
 
 
-  private Value objectToValue(Object object) {
+  private static Value objectToValue(Object object) {
     if (object instanceof String) {
       // try to parse as instant, otherwise use as string
       try {
@@ -227,7 +902,7 @@ public class SplitProvider implements FeatureProvider {
       }
     } else if (object instanceof List) {
       // need to translate each elem in list to a value
-      return new Value(((List<Object>) object).stream().map(this::objectToValue).collect(Collectors.toList()));
+      return new Value(((List<Object>) object).stream().map(SplitProvider::objectToValue).collect(Collectors.toList()));
     } else if (object instanceof Map) {
       return mapToValue((Map<String, Object>) object);
     } else {
@@ -0,0 +1,554 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+import io.split.openfeature.utils.TrackingProperties;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of the Split provider itself. Options of the underlying Split SDK stay in {@link io.split.client.SplitClientConfig}.
+ */
+public class SplitProviderConfig {
+
+  private final boolean warmUpEnabled;
+  private final List<String> warmUpFlags;
+  private final int warmUpIterations;
+  private final int warmUpTimeout;
+  private final SplitClient nonRecordingClient;
+  private final int shutdownTimeout;
+  private final int changePollInterval;
+  private final int sessionRefreshInterval;
+  private final boolean flagUsageEnabled;
+  private final int flagUsageDumpInterval;
+  private final boolean freshnessEnabled;
+  private final int batchParallelism;
+  private final int batchChunkSize;
+  private final Path evaluationRecordingFile;
+  private final double evaluationSampleRate;
+  private final List<Path> localhostFiles;
+  private final TrackingProperties.NestedPolicy trackNestedPolicy;
+  private final int trackMaxProperties;
+  private final int trackMaxPropertiesSize;
+  private final Map<String, TrackPolicy> trackPolicies;
+  private final int trackDedupCapacity;
+  private final Set<String> aggregatedTrackEvents;
+  private final int trackAggregationInterval;
+  private final Map<String, ImpressionPolicy> impressionPolicies;
+  private final Path overridesFile;
+  private final long memoryLimit;
+  private final int memoryCheckInterval;
+
+  private SplitProviderConfig(Builder builder) {
+    this.warmUpEnabled = builder.warmUpEnabled;
+    this.warmUpFlags = List.copyOf(builder.warmUpFlags);
+    this.warmUpIterations = builder.warmUpIterations;
+    this.warmUpTimeout = builder.warmUpTimeout;
+    this.nonRecordingClient = builder.nonRecordingClient;
+    this.shutdownTimeout = builder.shutdownTimeout;
+    this.changePollInterval = builder.changePollInterval;
+    this.sessionRefreshInterval = builder.sessionRefreshInterval;
+    this.flagUsageEnabled = builder.flagUsageEnabled;
+    this.flagUsageDumpInterval = builder.flagUsageDumpInterval;
+    this.freshnessEnabled = builder.freshnessEnabled;
+    this.batchParallelism = builder.batchParallelism;
+    this.batchChunkSize = builder.batchChunkSize;
+    this.evaluationRecordingFile = builder.evaluationRecordingFile;
+    this.evaluationSampleRate = builder.evaluationSampleRate;
+    this.localhostFiles = List.copyOf(builder.localhostFiles);
+    this.trackNestedPolicy = builder.trackNestedPolicy;
+    this.trackMaxProperties = builder.trackMaxProperties;
+    this.trackMaxPropertiesSize = builder.trackMaxPropertiesSize;
+    this.trackPolicies = Map.copyOf(builder.trackPolicies);
+    this.trackDedupCapacity = builder.trackDedupCapacity;
+    this.aggregatedTrackEvents = Set.copyOf(builder.aggregatedTrackEvents);
+    this.trackAggregationInterval = builder.trackAggregationInterval;
+    this.impressionPolicies = Map.copyOf(builder.impressionPolicies);
+    this.overridesFile = builder.overridesFile;
+    this.memoryLimit = builder.memoryLimit;
+    this.memoryCheckInterval = builder.memoryCheckInterval;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean warmUpEnabled() {
+    return warmUpEnabled;
+  }
+
+  /**
+   * Flags to warm up. Empty means every flag known to the {@link io.split.client.SplitManager}.
+   */
+  public List<String> warmUpFlags() {
+    return warmUpFlags;
+  }
+
+  public int warmUpIterations() {
+    return warmUpIterations;
+  }
+
+  public int warmUpTimeout() {
+    return warmUpTimeout;
+  }
+
+  /**
+   * Client whose factory was built with {@code ImpressionsManager.Mode.NONE}, used for evaluations that must not
+   * generate impressions. The SDK still tracks unique keys and impression counts in that mode. May be null.
+   */
+  public SplitClient nonRecordingClient() {
+    return nonRecordingClient;
+  }
+
+  public int shutdownTimeout() {
+    return shutdownTimeout;
+  }
+
+  public int changePollInterval() {
+    return changePollInterval;
+  }
+
+  public int sessionRefreshInterval() {
+    return sessionRefreshInterval;
+  }
+
+  public boolean flagUsageEnabled() {
+    return flagUsageEnabled;
+  }
+
+  public int flagUsageDumpInterval() {
+    return flagUsageDumpInterval;
+  }
+
+  public boolean freshnessEnabled() {
+    return freshnessEnabled;
+  }
+
+  public int batchParallelism() {
+    return batchParallelism;
+  }
+
+  public int batchChunkSize() {
+    return batchChunkSize;
+  }
+
+  /**
+   * File evaluation calls are sampled into, see {@link io.split.openfeature.capture.EvaluationRecorder}. May be null.
+   */
+  public Path evaluationRecordingFile() {
+    return evaluationRecordingFile;
+  }
+
+  public double evaluationSampleRate() {
+    return evaluationSampleRate;
+  }
+
+  /**
+   * Localhost YAML files the provider evaluates from and watches for changes. Empty unless set.
+   */
+  public List<Path> localhostFiles() {
+    return localhostFiles;
+  }
+
+  public TrackingProperties.NestedPolicy trackNestedPolicy() {
+    return trackNestedPolicy;
+  }
+
+  public int trackMaxProperties() {
+    return trackMaxProperties;
+  }
+
+  public int trackMaxPropertiesSize() {
+    return trackMaxPropertiesSize;
+  }
+
+  /**
+   * Sampling and deduplication of tracked events, per event name. Empty unless set.
+   */
+  public Map<String, TrackPolicy> trackPolicies() {
+    return trackPolicies;
+  }
+
+  public int trackDedupCapacity() {
+    return trackDedupCapacity;
+  }
+
+  /**
+   * Event names whose values are aggregated locally instead of being sent one by one. Empty unless set.
+   */
+  public Set<String> aggregatedTrackEvents() {
+    return aggregatedTrackEvents;
+  }
+
+  public int trackAggregationInterval() {
+    return trackAggregationInterval;
+  }
+
+  /**
+   * Impression policies by flag name or prefix. Empty unless set.
+   */
+  public Map<String, ImpressionPolicy> impressionPolicies() {
+    return impressionPolicies;
+  }
+
+  /**
+   * File the overrides are loaded from and reloaded when it changes, see {@link FlagOverrides}. May be null.
+   */
+  public Path overridesFile() {
+    return overridesFile;
+  }
+
+  /**
+   * Estimated bytes the provider may hold before it evicts from its caches, 0 for no limit.
+   */
+  public long memoryLimit() {
+    return memoryLimit;
+  }
+
+  public int memoryCheckInterval() {
+    return memoryCheckInterval;
+  }
+
+  public static final class Builder {
+    private boolean warmUpEnabled = false;
+    private List<String> warmUpFlags = List.of();
+    private int warmUpIterations = 1000;
+    private int warmUpTimeout = 5000;
+    private SplitClient nonRecordingClient;
+    private int shutdownTimeout = 5000;
+    private int changePollInterval = 1000;
+    private int sessionRefreshInterval = 60000;
+    private boolean flagUsageEnabled = false;
+    private int flagUsageDumpInterval = 0;
+    private boolean freshnessEnabled = false;
+    private int batchParallelism = Runtime.getRuntime().availableProcessors();
+    private int batchChunkSize = 1000;
+    private Path evaluationRecordingFile;
+    private double evaluationSampleRate = 0.01;
+    private List<Path> localhostFiles = List.of();
+    private TrackingProperties.NestedPolicy trackNestedPolicy = TrackingProperties.NestedPolicy.DROP;
+    private int trackMaxProperties = TrackingProperties.DEFAULT_MAX_PROPERTIES;
+    private int trackMaxPropertiesSize = TrackingProperties.DEFAULT_MAX_SIZE;
+    private final Map<String, TrackPolicy> trackPolicies = new HashMap<>();
+    private int trackDedupCapacity = 100000;
+    private Set<String> aggregatedTrackEvents = Set.of();
+    private int trackAggregationInterval = 60000;
+    private final Map<String, ImpressionPolicy> impressionPolicies = new HashMap<>();
+    private Path overridesFile;
+    private long memoryLimit = 0;
+    private int memoryCheckInterval = 10000;
+
+    public Builder() {
+    }
+
+    /**
+     * Runs a warm-up when the provider is initialized: the flags are resolved with synthetic contexts through every
+     * typed path, so code paths and parse caches are hot before the provider reports READY.
+     * No impressions are generated; flags are only evaluated by the SDK if a {@link #nonRecordingClient} is set.
+     *
+     * @param flags flags to warm up, or an empty list to use every flag from the SplitManager
+     */
+    public Builder warmUp(List<String> flags) {
+      this.warmUpEnabled = true;
+      this.warmUpFlags = flags == null ? List.of() : flags;
+      return this;
+    }
+
+    /**
+     * Number of rounds over the warm-up flags. Default 1000.
+     */
+    public Builder warmUpIterations(int iterations) {
+      this.warmUpIterations = iterations;
+      return this;
+    }
+
+    /**
+     * Upper bound for the warm-up in milliseconds. Once reached the provider reports READY anyway. Default 5000.
+     */
+    public Builder warmUpTimeout(int milliseconds) {
+      this.warmUpTimeout = milliseconds;
+      return this;
+    }
+
+    public Builder nonRecordingClient(SplitClient client) {
+      this.nonRecordingClient = client;
+      return this;
+    }
+
+    /**
+     * Upper bound in milliseconds for {@link SplitProvider#shutdown()} to flush pending impressions and events.
+     * Default 5000.
+     */
+    public Builder shutdownTimeout(int milliseconds) {
+      this.shutdownTimeout = milliseconds;
+      return this;
+    }
+
+    /**
+     * How often, in milliseconds, the provider checks the SplitManager for updated flag definitions while there are
+     * open sessions or freshness is tracked. Default 1000.
+     */
+    public Builder changePollInterval(int milliseconds) {
+      this.changePollInterval = milliseconds;
+      return this;
+    }
+
+    /**
+     * How often, in milliseconds, open sessions are fully evaluated again to pick up segment updates, which the SDK
+     * doesn't report. 0 disables it. Default 60000.
+     */
+    public Builder sessionRefreshInterval(int milliseconds) {
+      this.sessionRefreshInterval = milliseconds;
+      return this;
+    }
+
+    /**
+     * Counts evaluations per flag and treatment, and keeps the time of the last evaluation of each flag.
+     * See {@link SplitProvider#getFlagUsage()}. Disabled by default.
+     */
+    public Builder flagUsage(boolean enabled) {
+      this.flagUsageEnabled = enabled;
+      return this;
+    }
+
+    /**
+     * Logs the flag usage, and the definition freshness if enabled, every given number of milliseconds. 0 disables it.
+     * Default 0.
+     */
+    public Builder flagUsageDumpInterval(int milliseconds) {
+      this.flagUsageDumpInterval = milliseconds;
+      return this;
+    }
+
+    /**
+     * Polls the SplitManager every {@link #changePollInterval(int)} for definition updates, to report how fresh the
+     * definitions are and how long updates take to arrive. See {@link SplitProvider#getFreshness()}. Needs a
+     * SplitManager, so it has no effect on providers created from a client. Disabled by default.
+     */
+    public Builder freshness(boolean enabled) {
+      this.freshnessEnabled = enabled;
+      return this;
+    }
+
+    /**
+     * Number of threads of the fork-join pool used by {@link SplitProvider#evaluateBatch}. Default is the number of
+     * available processors.
+     */
+    public Builder batchParallelism(int threads) {
+      this.batchParallelism = threads;
+      return this;
+    }
+
+    /**
+     * Number of rows handed to a batch evaluation thread at a time. At most two chunks per thread are held in memory.
+     * Default 1000.
+     */
+    public Builder batchChunkSize(int rows) {
+      this.batchChunkSize = rows;
+      return this;
+    }
+
+    /**
+     * Samples evaluation calls (flag, type, a hash of the targeting key and the attributes) into a binary file that
+     * {@link io.split.openfeature.capture.EvaluationReplay} can replay. Disabled by default.
+     *
+     * @param file recording file, records are appended if it already exists
+     * @param sampleRate fraction of the calls recorded, greater than 0 and at most 1
+     */
+    public Builder recordEvaluations(Path file, double sampleRate) {
+      this.evaluationRecordingFile = file;
+      this.evaluationSampleRate = sampleRate;
+      return this;
+    }
+
+    /**
+     * Evaluates flags from localhost YAML files instead of the client, and reloads each file when it changes. Only the
+     * changed file is parsed again, and a PROVIDER_CONFIGURATION_CHANGED event lists the flags whose treatment or
+     * config changed. When several files define a flag, the last one wins.
+     *
+     * @param files localhost YAML files, in the same format as {@link io.split.client.SplitClientConfig.Builder#splitFile(String)}
+     */
+    public Builder watchLocalhostFiles(List<Path> files) {
+      this.localhostFiles = files == null ? List.of() : files;
+      return this;
+    }
+
+    /**
+     * What track does with nested structures and lists in the event details, which Split can't store as they are.
+     * Default {@link TrackingProperties.NestedPolicy#DROP}.
+     */
+    public Builder trackNestedProperties(TrackingProperties.NestedPolicy policy) {
+      this.trackNestedPolicy = policy;
+      return this;
+    }
+
+    /**
+     * Maximum number of properties of a tracked event, after flattening. Events over it are rejected. Default 300.
+     */
+    public Builder trackMaxProperties(int properties) {
+      this.trackMaxProperties = properties;
+      return this;
+    }
+
+    /**
+     * Maximum size in bytes of the properties of a tracked event, estimated as the SDK does. Events over it are
+     * rejected instead of being built and then dropped by the SDK. Default 32768.
+     */
+    public Builder trackMaxPropertiesSize(int bytes) {
+      this.trackMaxPropertiesSize = bytes;
+      return this;
+    }
+
+    /**
+     * Samples or deduplicates the events with the given name before they are handed to the SDK, see
+     * {@link TrackPolicy}. What each policy drops is reported by {@link SplitProvider#getTrackStats()}.
+     */
+    public Builder trackPolicy(String eventName, TrackPolicy policy) {
+      this.trackPolicies.put(eventName, policy);
+      return this;
+    }
+
+    /**
+     * Number of distinct keys per window a deduplicated event is sized for. Each deduplicated event name holds 2.5 to 5
+     * bytes per key of capacity; past the capacity, more new keys are mistaken for repeated ones. Default 100000.
+     */
+    public Builder trackDedupCapacity(int keys) {
+      this.trackDedupCapacity = keys;
+      return this;
+    }
+
+    /**
+     * Aggregates the values of the given events locally: track only updates the count, sum, min and max of the key,
+     * traffic type and event name, and one event per combination is sent every {@link #trackAggregationInterval(int)},
+     * on {@link SplitProvider#flushTrackAggregates()} and on shutdown. The value of that event is the sum, and its
+     * properties the count, min and max; properties of the individual events are not kept.
+     */
+    public Builder aggregateTrackEvents(Collection<String> eventNames) {
+      this.aggregatedTrackEvents = eventNames == null ? Set.of() : new HashSet<>(eventNames);
+      return this;
+    }
+
+    /**
+     * How often, in milliseconds, aggregated events are sent. Default 60000.
+     */
+    public Builder trackAggregationInterval(int milliseconds) {
+      this.trackAggregationInterval = milliseconds;
+      return this;
+    }
+
+    /**
+     * Whether evaluations of a flag, or of every flag starting with a prefix when the name ends with {@code *},
+     * generate impressions. Evaluations without impressions go to the {@link #nonRecordingClient}, which must be set.
+     * An exact name wins over prefixes, and a longer prefix over a shorter one. Flags without a policy get
+     * {@link ImpressionPolicy#FULL}. Sessions and warm-up are not affected.
+     */
+    public Builder impressionPolicy(String flagOrPrefix, ImpressionPolicy policy) {
+      this.impressionPolicies.put(flagOrPrefix, policy);
+      return this;
+    }
+
+    /**
+     * Loads {@link FlagOverrides} from a file in the localhost YAML format, and swaps them whenever the file changes.
+     * If the file is empty or can't be parsed, the previous overrides are kept.
+     */
+    public Builder overridesFile(Path file) {
+      this.overridesFile = file;
+      return this;
+    }
+
+    /**
+     * Caps the memory held by the provider, as estimated by {@link SplitProvider#getMemoryReport()}. Every
+     * {@link #memoryCheckInterval(int)} and on every report, a provider over the limit drops its cached impression
+     * policy resolutions, sends its aggregated track events early and, if still over, drops the usage counters of the
+     * flags evaluated least recently. Localhost flags, overrides, sessions and deduplication filters are never evicted.
+     * 0, the default, disables the limit.
+     */
+    public Builder memoryLimit(long bytes) {
+      this.memoryLimit = bytes;
+      return this;
+    }
+
+    /**
+     * How often, in milliseconds, the memory limit is checked. Default 10000.
+     */
+    public Builder memoryCheckInterval(int milliseconds) {
+      this.memoryCheckInterval = milliseconds;
+      return this;
+    }
+
+    public SplitProviderConfig build() {
+      if (warmUpIterations <= 0) {
+        throw new IllegalArgumentException("warmUpIterations must be greater than 0");
+      }
+      if (warmUpTimeout <= 0) {
+        throw new IllegalArgumentException("warmUpTimeout must be greater than 0");
+      }
+      if (shutdownTimeout <= 0) {
+        throw new IllegalArgumentException("shutdownTimeout must be greater than 0");
+      }
+      if (changePollInterval <= 0) {
+        throw new IllegalArgumentException("changePollInterval must be greater than 0");
+      }
+      if (sessionRefreshInterval < 0) {
+        throw new IllegalArgumentException("sessionRefreshInterval must not be negative");
+      }
+      if (flagUsageDumpInterval < 0) {
+        throw new IllegalArgumentException("flagUsageDumpInterval must not be negative");
+      }
+      if (batchParallelism <= 0) {
+        throw new IllegalArgumentException("batchParallelism must be greater than 0");
+      }
+      if (batchChunkSize <= 0) {
+        throw new IllegalArgumentException("batchChunkSize must be greater than 0");
+      }
+      if (evaluationRecordingFile != null && !(evaluationSampleRate > 0 && evaluationSampleRate <= 1)) {
+        throw new IllegalArgumentException("evaluationSampleRate must be greater than 0 and at most 1");
+      }
+      if (trackNestedPolicy == null) {
+        throw new IllegalArgumentException("trackNestedPolicy must not be null");
+      }
+      if (trackMaxProperties < 0) {
+        throw new IllegalArgumentException("trackMaxProperties must not be negative");
+      }
+      if (trackMaxPropertiesSize <= 0) {
+        throw new IllegalArgumentException("trackMaxPropertiesSize must be greater than 0");
+      }
+      for (Map.Entry<String, TrackPolicy> entry : trackPolicies.entrySet()) {
+        if (entry.getKey() == null || entry.getKey().isBlank() || entry.getValue() == null) {
+          throw new IllegalArgumentException("trackPolicy needs an event name and a policy");
+        }
+      }
+      if (trackDedupCapacity <= 0) {
+        throw new IllegalArgumentException("trackDedupCapacity must be greater than 0");
+      }
+      for (String eventName : aggregatedTrackEvents) {
+        if (eventName == null || eventName.isBlank()) {
+          throw new IllegalArgumentException("aggregateTrackEvents needs non-blank event names");
+        }
+      }
+      if (trackAggregationInterval <= 0) {
+        throw new IllegalArgumentException("trackAggregationInterval must be greater than 0");
+      }
+      for (Map.Entry<String, ImpressionPolicy> entry : impressionPolicies.entrySet()) {
+        if (entry.getKey() == null || entry.getKey().isEmpty() || entry.getValue() == null) {
+          throw new IllegalArgumentException("impressionPolicy needs a flag name or prefix and a policy");
+        }
+        if (entry.getValue() != ImpressionPolicy.FULL && nonRecordingClient == null) {
+          throw new IllegalArgumentException("impressionPolicy needs a nonRecordingClient");
+        }
+      }
+      if (memoryLimit < 0) {
+        throw new IllegalArgumentException("memoryLimit must not be negative");
+      }
+      if (memoryCheckInterval <= 0) {
+        throw new IllegalArgumentException("memoryCheckInterval must be greater than 0");
+      }
+      return new SplitProviderConfig(this);
+    }
+  }
+}
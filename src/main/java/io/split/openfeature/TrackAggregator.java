@@ -0,0 +1,165 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accumulates count, sum, min and max of the values of chosen events per key, traffic type and event name, and sends
+ * one event per combination when flushed. The table is split in stripes, each a plain map behind its own lock, so
+ * threads recording different keys rarely contend. A flush swaps each stripe's map for an empty one and sends the old
+ * one outside the lock.
+ */
+final class TrackAggregator {
+
+  static final String COUNT = "count";
+  static final String MIN = "min";
+  static final String MAX = "max";
+
+  private final Set<String> eventNames;
+  private final Stripe[] stripes;
+
+  TrackAggregator(Set<String> eventNames) {
+    this.eventNames = Set.copyOf(eventNames);
+    int count = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+    this.stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  boolean aggregates(String eventName) {
+    return eventNames.contains(eventName);
+  }
+
+  void record(String key, String trafficType, String eventName, double value) {
+    AggregateKey aggregateKey = new AggregateKey(key, trafficType, eventName);
+    Stripe stripe = stripes[aggregateKey.hash & (stripes.length - 1)];
+    synchronized (stripe) {
+      Aggregate aggregate = stripe.table.get(aggregateKey);
+      if (aggregate == null) {
+        stripe.table.put(aggregateKey, new Aggregate(value));
+      } else {
+        aggregate.add(value);
+      }
+    }
+  }
+
+  /**
+   * Sends an event per key, traffic type and event name recorded since the last flush. The value of the event is the
+   * sum of the values, and its properties the count, min and max.
+   *
+   * @return number of events sent
+   */
+  int flush(SplitClient client) {
+    int sent = 0;
+    for (Stripe stripe : stripes) {
+      Map<AggregateKey, Aggregate> table;
+      synchronized (stripe) {
+        if (stripe.table.isEmpty()) {
+          continue;
+        }
+        table = stripe.table;
+        stripe.table = new HashMap<>();
+      }
+      for (Map.Entry<AggregateKey, Aggregate> entry : table.entrySet()) {
+        AggregateKey key = entry.getKey();
+        Aggregate aggregate = entry.getValue();
+        client.track(key.key, key.trafficType, key.eventName, aggregate.sum,
+                Map.of(COUNT, aggregate.count, MIN, aggregate.min, MAX, aggregate.max));
+        sent++;
+      }
+    }
+    return sent;
+  }
+
+  /**
+   * @return number of aggregates waiting for the next flush
+   */
+  int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.table.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return estimated bytes of the aggregates waiting for the next flush, with their keys
+   */
+  long estimateBytes() {
+    long bytes = MemoryEstimates.align(16 + stripes.length * MemoryEstimates.REFERENCE);
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        bytes += MemoryEstimates.object(1, 0) + MemoryEstimates.map(stripe.table.size());
+        for (AggregateKey key : stripe.table.keySet()) {
+          // traffic types and event names are usually constants shared by every key, they aren't counted
+          bytes += MemoryEstimates.object(4, 0) + MemoryEstimates.string(key.key) + MemoryEstimates.object(0, 4);
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private static final class Stripe {
+    Map<AggregateKey, Aggregate> table = new HashMap<>();
+  }
+
+  private static final class AggregateKey {
+    final String key;
+    final String trafficType;
+    final String eventName;
+    final int hash;
+
+    AggregateKey(String key, String trafficType, String eventName) {
+      this.key = key;
+      this.trafficType = trafficType;
+      this.eventName = eventName;
+      int h = (31 * key.hashCode() + trafficType.hashCode()) * 31 + eventName.hashCode();
+      // spread the high bits, only the low ones pick the stripe
+      this.hash = h ^ (h >>> 16);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof AggregateKey)) {
+        return false;
+      }
+      AggregateKey other = (AggregateKey) o;
+      return key.equals(other.key) && trafficType.equals(other.trafficType) && eventName.equals(other.eventName);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Aggregate {
+    long count;
+    double sum;
+    double min;
+    double max;
+
+    Aggregate(double value) {
+      this.count = 1;
+      this.sum = value;
+      this.min = value;
+      this.max = value;
+    }
+
+    void add(double value) {
+      count++;
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package io.split.openfeature;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a track call. Like {@link EvaluationEvent}, only slow calls are recorded by default.
+ */
+@Name("io.split.openfeature.Track")
+@Label("Track")
+@Category({"Split", "OpenFeature"})
+@Description("Event tracked through the Split OpenFeature provider")
+@Threshold("10 ms")
+@StackTrace(false)
+final class TrackEvent extends Event {
+
+  @Label("Event Name")
+  String eventName;
+
+  @Label("Traffic Type")
+  String trafficType;
+
+  @Label("Value")
+  double value;
+
+  @Label("Properties")
+  int properties;
+
+  @Label("Accepted")
+  @Description("Whether the SDK queued the event, false if a track policy dropped it")
+  boolean accepted;
+
+  void complete(String eventName, String trafficType, double value, int properties, boolean accepted) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    this.eventName = eventName;
+    this.trafficType = trafficType;
+    this.value = value;
+    this.properties = properties;
+    this.accepted = accepted;
+    commit();
+  }
+}
@@ -0,0 +1,59 @@
+package io.split.openfeature;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies the {@link TrackPolicy} of one event name and counts what it lets through and what it drops.
+ */
+final class TrackFilter {
+
+  private final String eventName;
+  private final TrackPolicy policy;
+  private final DedupFilter dedup;
+  private final LongAdder passed = new LongAdder();
+  private final LongAdder sampledOut = new LongAdder();
+  private final LongAdder deduplicated = new LongAdder();
+
+  TrackFilter(String eventName, TrackPolicy policy, int dedupCapacity) {
+    this.eventName = eventName;
+    this.policy = policy;
+    this.dedup = policy.dedupWindow() > 0
+            ? new DedupFilter(policy.dedupWindow(), dedupCapacity, System.currentTimeMillis())
+            : null;
+  }
+
+  /**
+   * @return true if the event of the key must be sent
+   */
+  boolean accept(String key) {
+    if (policy.sampleRate() < 1 && ThreadLocalRandom.current().nextDouble() >= policy.sampleRate()) {
+      sampledOut.increment();
+      return false;
+    }
+    if (dedup != null && !dedup.firstSeen(key, System.currentTimeMillis())) {
+      deduplicated.increment();
+      return false;
+    }
+    passed.increment();
+    return true;
+  }
+
+  /**
+   * @return the value of a sent event, scaled up for the events sampled out
+   */
+  double weigh(double value) {
+    return value / policy.sampleRate();
+  }
+
+  /**
+   * @return estimated bytes of the deduplication filter and the counters
+   */
+  long estimateBytes() {
+    return MemoryEstimates.object(6, 0) + 3 * MemoryEstimates.LONG_ADDER + (dedup == null ? 0 : dedup.sizeInBytes());
+  }
+
+  TrackStats snapshot() {
+    return new TrackStats(eventName, passed.sum(), sampledOut.sum(), deduplicated.sum());
+  }
+}
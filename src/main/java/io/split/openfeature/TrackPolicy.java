@@ -0,0 +1,61 @@
+package io.split.openfeature;
+
+/**
+ * How {@link SplitProvider#track} thins out a high-volume event before it reaches the Split SDK.
+ * <p>
+ * Sampling keeps each event with probability {@code sampleRate} and divides the value of the kept ones by it, so sums
+ * of values stay unbiased; counts of events in Split are reduced by the same rate. Deduplication keeps one event per
+ * targeting key within {@code dedupWindow} milliseconds, see {@link SplitProviderConfig.Builder#trackDedupCapacity(int)}
+ * for its accuracy. When both are set, events are sampled first.
+ */
+public final class TrackPolicy {
+
+  private final double sampleRate;
+  private final long dedupWindow;
+
+  private TrackPolicy(double sampleRate, long dedupWindow) {
+    if (!(sampleRate > 0 && sampleRate <= 1)) {
+      throw new IllegalArgumentException("sampleRate must be greater than 0 and at most 1");
+    }
+    if (dedupWindow < 0) {
+      throw new IllegalArgumentException("dedupWindow must not be negative");
+    }
+    this.sampleRate = sampleRate;
+    this.dedupWindow = dedupWindow;
+  }
+
+  /**
+   * @param sampleRate fraction of the events kept, greater than 0 and at most 1
+   */
+  public static TrackPolicy sampled(double sampleRate) {
+    return new TrackPolicy(sampleRate, 0);
+  }
+
+  /**
+   * @param windowMillis window in milliseconds within which repeated events of a key are dropped
+   */
+  public static TrackPolicy deduplicated(long windowMillis) {
+    return new TrackPolicy(1, windowMillis);
+  }
+
+  /**
+   * @param sampleRate fraction of the events kept, greater than 0 and at most 1
+   * @param windowMillis window in milliseconds within which repeated events of a key are dropped, 0 to keep them
+   */
+  public static TrackPolicy of(double sampleRate, long windowMillis) {
+    return new TrackPolicy(sampleRate, windowMillis);
+  }
+
+  public double sampleRate() {
+    return sampleRate;
+  }
+
+  public long dedupWindow() {
+    return dedupWindow;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("sampleRate=%s, dedupWindow=%d", sampleRate, dedupWindow);
+  }
+}
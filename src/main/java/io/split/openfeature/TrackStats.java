@@ -0,0 +1,45 @@
+package io.split.openfeature;
+
+/**
+ * Point-in-time counters of an event name with a {@link TrackPolicy}: events passed on to the SDK and events dropped
+ * by sampling or deduplication.
+ */
+public class TrackStats {
+
+  private final String eventName;
+  private final long passed;
+  private final long sampledOut;
+  private final long deduplicated;
+
+  TrackStats(String eventName, long passed, long sampledOut, long deduplicated) {
+    this.eventName = eventName;
+    this.passed = passed;
+    this.sampledOut = sampledOut;
+    this.deduplicated = deduplicated;
+  }
+
+  public String getEventName() {
+    return eventName;
+  }
+
+  public long getPassed() {
+    return passed;
+  }
+
+  public long getSampledOut() {
+    return sampledOut;
+  }
+
+  public long getDeduplicated() {
+    return deduplicated;
+  }
+
+  public long getDropped() {
+    return sampledOut + deduplicated;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: passed=%d, sampledOut=%d, deduplicated=%d", eventName, passed, sampledOut, deduplicated);
+  }
+}
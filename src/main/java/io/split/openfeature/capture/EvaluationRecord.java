@@ -0,0 +1,69 @@
+package io.split.openfeature.capture;
+
+import java.util.Map;
+
+/**
+ * One sampled evaluation: the flag, the type it was resolved to, a hash of the targeting key and the attributes.
+ */
+public final class EvaluationRecord {
+
+  public enum Type {
+    BOOLEAN, STRING, INTEGER, DOUBLE, OBJECT;
+
+    /**
+     * @param label type label used by the provider ("Boolean", "String", ...)
+     */
+    public static Type fromLabel(String label) {
+      switch (label) {
+        case "Boolean":
+          return BOOLEAN;
+        case "String":
+          return STRING;
+        case "Integer":
+          return INTEGER;
+        case "Double":
+          return DOUBLE;
+        case "Object":
+          return OBJECT;
+        default:
+          throw new IllegalArgumentException("Unknown evaluation type " + label);
+      }
+    }
+  }
+
+  private final Type type;
+  private final String flag;
+  private final long keyHash;
+  private final Map<String, Object> attributes;
+
+  EvaluationRecord(Type type, String flag, long keyHash, Map<String, Object> attributes) {
+    this.type = type;
+    this.flag = flag;
+    this.keyHash = keyHash;
+    this.attributes = attributes;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getFlag() {
+    return flag;
+  }
+
+  public long getKeyHash() {
+    return keyHash;
+  }
+
+  /**
+   * @return a targeting key standing in for the recorded one: different keys give different stand-ins, so the key
+   * distribution is preserved, but the buckets they fall into are not the original ones
+   */
+  public String getTargetingKey() {
+    return Long.toHexString(keyHash);
+  }
+
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+}
@@ -0,0 +1,83 @@
+package io.split.openfeature.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a file written by {@link EvaluationRecorder}. A record cut short at the end of the file, left by a crash while
+ * writing, ends the iteration.
+ */
+public class EvaluationRecordReader implements Iterator<EvaluationRecord>, Closeable {
+
+  private final DataInputStream in;
+  private EvaluationRecord next;
+  private boolean done = false;
+
+  public EvaluationRecordReader(Path file) throws IOException {
+    this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+    try {
+      if (in.readInt() != RecordFormat.MAGIC) {
+        throw new IOException(file + " is not an evaluation recording");
+      }
+      byte version = in.readByte();
+      if (version != RecordFormat.VERSION) {
+        throw new IOException("Unsupported evaluation recording version " + version);
+      }
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  public static List<EvaluationRecord> readAll(Path file) throws IOException {
+    List<EvaluationRecord> records = new ArrayList<>();
+    try (EvaluationRecordReader reader = new EvaluationRecordReader(file)) {
+      reader.forEachRemaining(records::add);
+    }
+    return records;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null && !done) {
+      try {
+        int type = in.read();
+        if (type < 0) {
+          done = true;
+        } else {
+          next = RecordFormat.readRecord(type, in);
+        }
+      } catch (EOFException e) {
+        done = true;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public EvaluationRecord next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    EvaluationRecord record = next;
+    next = null;
+    return record;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,148 @@
+package io.split.openfeature.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples evaluation calls into a compact binary file that {@link EvaluationReplay} can drive against a provider.
+ * <p>
+ * Each sampled call is encoded on the calling thread and appended to an in-memory buffer that is written to the end
+ * of the file when full and on {@link #close()}, so a crash may lose the last buffer's worth of records. Targeting keys
+ * are stored as a 64-bit hash. A failure to write disables the recorder, it never fails an evaluation.
+ */
+public class EvaluationRecorder implements Closeable {
+  private static final Logger _log = LoggerFactory.getLogger(EvaluationRecorder.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FileChannel channel;
+  private final double sampleRate;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final ThreadLocal<RecordFormat.Output> outputs = ThreadLocal.withInitial(RecordFormat.Output::new);
+  private final LongAdder recorded = new LongAdder();
+  private boolean closed = false;
+
+  /**
+   * @param file recording file, records are appended if it already exists
+   * @param sampleRate fraction of the calls recorded, between 0 (exclusive) and 1
+   */
+  public EvaluationRecorder(Path file, double sampleRate) throws IOException {
+    if (!(sampleRate > 0 && sampleRate <= 1)) {
+      throw new IllegalArgumentException("sampleRate must be greater than 0 and at most 1");
+    }
+    this.sampleRate = sampleRate;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    if (channel.size() == 0) {
+      ByteBuffer header = ByteBuffer.allocate(5).putInt(RecordFormat.MAGIC).put(RecordFormat.VERSION);
+      header.flip();
+      write(header);
+    }
+  }
+
+  public void record(EvaluationRecord.Type type, String flag, String targetingKey, Map<String, Object> attributes) {
+    if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
+    RecordFormat.Output out = outputs.get();
+    out.reset();
+    RecordFormat.writeRecord(out, type, flag, RecordFormat.keyHash(targetingKey), attributes);
+    append(out.bytes(), out.size());
+  }
+
+  /**
+   * @return bytes of the write buffer, allocated outside of the heap
+   */
+  public int bufferSize() {
+    return buffer.capacity();
+  }
+
+  /**
+   * @return number of records appended so far
+   */
+  public long recorded() {
+    return recorded.sum();
+  }
+
+  /**
+   * Writes buffered records to the file.
+   */
+  public synchronized void flush() {
+    if (closed) {
+      return;
+    }
+    try {
+      flushBuffer();
+    } catch (IOException e) {
+      disable(e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    try {
+      flushBuffer();
+    } catch (IOException e) {
+      _log.warn("Error writing the evaluation recording", e);
+    }
+    closed = true;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      _log.warn("Error closing the evaluation recording", e);
+    }
+  }
+
+  private synchronized void append(byte[] bytes, int length) {
+    if (closed) {
+      return;
+    }
+    try {
+      if (length > buffer.remaining()) {
+        flushBuffer();
+      }
+      if (length > buffer.capacity()) {
+        write(ByteBuffer.wrap(bytes, 0, length));
+      } else {
+        buffer.put(bytes, 0, length);
+      }
+      recorded.increment();
+    } catch (IOException e) {
+      disable(e);
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    buffer.flip();
+    write(buffer);
+    buffer.clear();
+  }
+
+  private void write(ByteBuffer source) throws IOException {
+    while (source.hasRemaining()) {
+      channel.write(source);
+    }
+  }
+
+  private void disable(IOException e) {
+    _log.error("Error writing the evaluation recording, recording stopped", e);
+    closed = true;
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // already failing
+    }
+  }
+}
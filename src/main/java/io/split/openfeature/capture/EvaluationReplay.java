@@ -0,0 +1,197 @@
+package io.split.openfeature.capture;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.FeatureProvider;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableStructure;
+import dev.openfeature.sdk.Value;
+import io.split.client.SplitClientConfig;
+import io.split.client.SplitFactory;
+import io.split.client.SplitFactoryBuilder;
+import io.split.openfeature.SplitProvider;
+import io.split.openfeature.SplitProviderConfig;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives a recorded evaluation stream against a provider and reports latency percentiles and allocation.
+ * <p>
+ * From the command line the provider runs in localhost mode over a YAML flag file:
+ * <pre>
+ * java -cp ... io.split.openfeature.capture.EvaluationReplay recording.bin split.yaml [threads] [rounds]
+ * </pre>
+ * Contexts are built before the clock starts, so only the provider's work is measured. Each thread replays its share
+ * of the records in order, {@code rounds} times.
+ */
+public final class EvaluationReplay {
+
+  private EvaluationReplay() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("Usage: EvaluationReplay <recording> <split.yaml> [threads] [rounds]");
+      System.exit(2);
+    }
+    Path recording = Paths.get(args[0]);
+    int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+    SplitClientConfig config = SplitClientConfig.builder()
+            .splitFile(args[1])
+            .setBlockUntilReadyTimeout(10000)
+            .build();
+    SplitFactory factory = SplitFactoryBuilder.build("localhost", config);
+    try {
+      SplitProvider provider = new SplitProvider(factory, SplitProviderConfig.builder().build());
+      List<EvaluationRecord> records = EvaluationRecordReader.readAll(recording);
+      System.out.printf("Replaying %d records on %d threads, %d rounds%n", records.size(), threads, rounds);
+      System.out.println(replay(provider, records, threads, rounds));
+    } finally {
+      factory.destroy();
+    }
+  }
+
+  public static ReplayReport replay(FeatureProvider provider, List<EvaluationRecord> records, int threads, int rounds)
+          throws InterruptedException {
+    if (threads <= 0 || rounds <= 0) {
+      throw new IllegalArgumentException("threads and rounds must be greater than 0");
+    }
+    List<EvaluationContext> contexts = new ArrayList<>(records.size());
+    for (EvaluationRecord record : records) {
+      contexts.add(toContext(record));
+    }
+
+    long[][] latencies = new long[threads][];
+    long[] errors = new long[threads];
+    long[] allocated = new long[threads];
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>(threads);
+    for (int t = 0; t < threads; t++) {
+      int worker = t;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          int share = (records.size() - worker + threads - 1) / threads;
+          long[] timings = new long[share * rounds];
+          int n = 0;
+          long allocatedBefore = allocatedBytes();
+          for (int round = 0; round < rounds; round++) {
+            for (int i = worker; i < records.size(); i += threads) {
+              long begin = System.nanoTime();
+              try {
+                evaluate(provider, records.get(i), contexts.get(i));
+              } catch (RuntimeException e) {
+                errors[worker]++;
+              }
+              timings[n++] = System.nanoTime() - begin;
+            }
+          }
+          long allocatedAfter = allocatedBytes();
+          allocated[worker] = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+          latencies[worker] = timings;
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      }, "split-replay-" + t);
+      workers.add(thread);
+      thread.start();
+    }
+
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - begin;
+    if (failure.get() != null) {
+      throw new IllegalStateException("Replay failed", failure.get());
+    }
+
+    long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    long totalErrors = Arrays.stream(errors).sum();
+    long totalAllocated = Arrays.stream(allocated).anyMatch(bytes -> bytes < 0) ? -1 : Arrays.stream(allocated).sum();
+    return new ReplayReport(all.length, totalErrors, elapsed,
+            percentile(all, 0.5), percentile(all, 0.9), percentile(all, 0.99), percentile(all, 0.999),
+            all.length == 0 ? 0 : all[all.length - 1],
+            totalAllocated < 0 || all.length == 0 ? -1 : totalAllocated / all.length);
+  }
+
+  private static void evaluate(FeatureProvider provider, EvaluationRecord record, EvaluationContext context) {
+    switch (record.getType()) {
+      case BOOLEAN:
+        provider.getBooleanEvaluation(record.getFlag(), false, context);
+        break;
+      case STRING:
+        provider.getStringEvaluation(record.getFlag(), "", context);
+        break;
+      case INTEGER:
+        provider.getIntegerEvaluation(record.getFlag(), 0, context);
+        break;
+      case DOUBLE:
+        provider.getDoubleEvaluation(record.getFlag(), 0.0, context);
+        break;
+      default:
+        provider.getObjectEvaluation(record.getFlag(), new Value(), context);
+    }
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, index)];
+  }
+
+  private static long allocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+      if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  private static EvaluationContext toContext(EvaluationRecord record) {
+    Map<String, Value> attributes = new HashMap<>(record.getAttributes().size() * 4 / 3 + 1);
+    record.getAttributes().forEach((name, value) -> attributes.put(name, toValue(value)));
+    return new MutableContext(record.getTargetingKey(), attributes);
+  }
+
+  private static Value toValue(Object value) {
+    if (value == null) {
+      return new Value();
+    } else if (value instanceof Long) {
+      long number = (Long) value;
+      return number == (int) number ? new Value((int) number) : new Value((double) number);
+    } else if (value instanceof List) {
+      List<Value> values = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        values.add(toValue(element));
+      }
+      return new Value(values);
+    } else if (value instanceof Map) {
+      MutableStructure structure = new MutableStructure();
+      ((Map<?, ?>) value).forEach((name, element) -> structure.add(String.valueOf(name), toValue(element)));
+      return new Value(structure);
+    } else if (value instanceof Instant) {
+      return new Value((Instant) value);
+    }
+    return Value.objectToValue(value);
+  }
+}
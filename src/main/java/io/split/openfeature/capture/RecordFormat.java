@@ -0,0 +1,243 @@
+package io.split.openfeature.capture;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of an evaluation recording.
+ * <p>
+ * The file starts with a 4 byte magic number and a version byte. Each record is then: the type ordinal (1 byte), the
+ * key hash (8 bytes), the flag name, the number of attributes and each attribute as a name and a tagged value.
+ * Strings are a varint length followed by UTF-8 bytes, integers are zig-zag varints.
+ */
+final class RecordFormat {
+
+  static final int MAGIC = 0x53504552; // "SPER"
+  static final byte VERSION = 1;
+
+  // the targeting key is recorded as a hash, never in clear among the attributes
+  static final String TARGETING_KEY = "targetingKey";
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte DOUBLE = 5;
+  private static final byte LIST = 6;
+  private static final byte MAP = 7;
+  private static final byte INSTANT = 8;
+
+  private RecordFormat() {
+  }
+
+  /**
+   * 64-bit FNV-1a hash of the key.
+   */
+  static long keyHash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  static void writeRecord(Output out, EvaluationRecord.Type type, String flag, long keyHash, Map<String, Object> attributes) {
+    out.writeByte(type.ordinal());
+    out.writeLong(keyHash);
+    out.writeString(flag);
+    int count = attributes.containsKey(TARGETING_KEY) ? attributes.size() - 1 : attributes.size();
+    out.writeVarLong(count);
+    for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+      if (!TARGETING_KEY.equals(attribute.getKey())) {
+        out.writeString(attribute.getKey());
+        writeValue(out, attribute.getValue());
+      }
+    }
+  }
+
+  private static void writeValue(Output out, Object value) {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      out.writeString((String) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeByte((Boolean) value ? 1 : 0);
+    } else if (value instanceof Integer) {
+      out.writeByte(INT);
+      out.writeVarLong(zigZag((Integer) value));
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeVarLong(zigZag((Long) value));
+    } else if (value instanceof Number) {
+      out.writeByte(DOUBLE);
+      out.writeLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+    } else if (value instanceof Instant) {
+      out.writeByte(INSTANT);
+      out.writeVarLong(zigZag(((Instant) value).toEpochMilli()));
+    } else if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      out.writeByte(LIST);
+      out.writeVarLong(list.size());
+      for (Object element : list) {
+        writeValue(out, element);
+      }
+    } else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      out.writeByte(MAP);
+      out.writeVarLong(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        out.writeString(String.valueOf(entry.getKey()));
+        writeValue(out, entry.getValue());
+      }
+    } else {
+      out.writeByte(STRING);
+      out.writeString(value.toString());
+    }
+  }
+
+  static EvaluationRecord readRecord(int typeOrdinal, DataInput in) throws IOException {
+    EvaluationRecord.Type[] types = EvaluationRecord.Type.values();
+    if (typeOrdinal >= types.length) {
+      throw new IOException("Unknown evaluation type " + typeOrdinal);
+    }
+    EvaluationRecord.Type type = types[typeOrdinal];
+    long keyHash = in.readLong();
+    String flag = readString(in);
+    int count = (int) readVarLong(in);
+    Map<String, Object> attributes = new HashMap<>(count * 4 / 3 + 1);
+    for (int i = 0; i < count; i++) {
+      attributes.put(readString(in), readValue(in));
+    }
+    return new EvaluationRecord(type, flag, keyHash, attributes);
+  }
+
+  private static Object readValue(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case BOOLEAN:
+        return in.readByte() != 0;
+      case INT:
+        return (int) unZigZag(readVarLong(in));
+      case LONG:
+        return unZigZag(readVarLong(in));
+      case DOUBLE:
+        return Double.longBitsToDouble(in.readLong());
+      case INSTANT:
+        return Instant.ofEpochMilli(unZigZag(readVarLong(in)));
+      case LIST: {
+        int size = (int) readVarLong(in);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue(in));
+        }
+        return list;
+      }
+      case MAP: {
+        int size = (int) readVarLong(in);
+        Map<String, Object> map = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+          map.put(readString(in), readValue(in));
+        }
+        return map;
+      }
+      default:
+        throw new IOException("Unknown value tag " + tag);
+    }
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    byte[] bytes = new byte[(int) readVarLong(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static long readVarLong(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Growable buffer a record is encoded into before being appended to the file.
+   */
+  static final class Output {
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    void reset() {
+      size = 0;
+    }
+
+    byte[] bytes() {
+      return bytes;
+    }
+
+    int size() {
+      return size;
+    }
+
+    void writeByte(int b) {
+      ensure(1);
+      bytes[size++] = (byte) b;
+    }
+
+    void writeLong(long value) {
+      ensure(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7fL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    void writeString(String value) {
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(utf8.length);
+      ensure(utf8.length);
+      System.arraycopy(utf8, 0, bytes, size, utf8.length);
+      size += utf8.length;
+    }
+
+    private void ensure(int length) {
+      if (size + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package io.split.openfeature.capture;
+
+/**
+ * Latency and allocation of a replay. Latencies are in nanoseconds.
+ */
+public class ReplayReport {
+
+  private final long calls;
+  private final long errors;
+  private final long elapsedNanos;
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+  private final long max;
+  private final long allocatedBytesPerCall;
+
+  ReplayReport(long calls, long errors, long elapsedNanos, long p50, long p90, long p99, long p999, long max,
+               long allocatedBytesPerCall) {
+    this.calls = calls;
+    this.errors = errors;
+    this.elapsedNanos = elapsedNanos;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+    this.allocatedBytesPerCall = allocatedBytesPerCall;
+  }
+
+  public long calls() {
+    return calls;
+  }
+
+  /**
+   * @return calls that threw, their latency is included in the percentiles
+   */
+  public long errors() {
+    return errors;
+  }
+
+  public long elapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public double throughput() {
+    return elapsedNanos == 0 ? 0 : calls * 1e9 / elapsedNanos;
+  }
+
+  public long p50() {
+    return p50;
+  }
+
+  public long p90() {
+    return p90;
+  }
+
+  public long p99() {
+    return p99;
+  }
+
+  public long p999() {
+    return p999;
+  }
+
+  public long max() {
+    return max;
+  }
+
+  /**
+   * @return bytes allocated per call by the replay threads, or -1 if the JVM can't measure it
+   */
+  public long allocatedBytesPerCall() {
+    return allocatedBytesPerCall;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("calls=%d, errors=%d, calls/s=%.0f, p50=%.1fus, p90=%.1fus, p99=%.1fus, p99.9=%.1fus, max=%.1fus, "
+                    + "allocated/call=%dB", calls, errors, throughput(), p50 / 1e3, p90 / 1e3, p99 / 1e3, p999 / 1e3,
+            max / 1e3, allocatedBytesPerCall);
+  }
+}
@@ -0,0 +1,480 @@
+package io.split.openfeature.storage;
+
+import io.split.storages.pluggable.domain.PrefixAdapter;
+import pluggable.CustomStorageWrapper;
+import pluggable.Pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process near-cache in front of a Redis (or any pluggable) storage used by the Split SDK in consumer mode.
+ * <p>
+ * Flag definitions, rule-based segments, traffic types, flag sets and segment membership lookups are kept locally
+ * for at most {@code ttlMillis}. On top of the TTL, cached values are tied to the change numbers ("till" keys) the
+ * synchronizer writes after every update: those are probed at most once every {@code versionCheckMillis}, and a new
+ * change number invalidates every entry read under the previous one. Everything else (impressions, events,
+ * telemetry) goes straight to the delegate.
+ * <p>
+ * The cache holds at most {@code maxEntries} values; once full, expired or outdated entries are purged (at most once
+ * every {@code min(ttlMillis, 100)} milliseconds) and, if there is still no room, new values are served without being
+ * cached until existing ones expire.
+ */
+public class NearCacheStorageWrapper implements CustomStorageWrapper {
+
+  public static final int DEFAULT_MAX_ENTRIES = 10_000;
+  public static final long DEFAULT_TTL_MILLIS = 5_000;
+  public static final long DEFAULT_VERSION_CHECK_MILLIS = 500;
+
+  private static final long PURGE_INTERVAL_NANOS = 100_000_000L;
+
+  private static final String SPLIT_PREFIX = PrefixAdapter.buildSplitsPrefix();
+  private static final String SPLITS_TILL = PrefixAdapter.buildSplitChangeNumber();
+  private static final String RULE_BASED_SEGMENTS_TILL = PrefixAdapter.buildRuleBasedSegmentChangeNumber();
+  private static final String RULE_BASED_SEGMENT_PREFIX = PrefixAdapter.buildRuleBasedSegmentKey("");
+  private static final String TRAFFIC_TYPE_PREFIX = PrefixAdapter.buildTrafficTypeExists("");
+  private static final String FLAG_SET_PREFIX = PrefixAdapter.buildFlagSetPrefix("");
+  private static final String SEGMENT_PREFIX = PrefixAdapter.buildSegment("");
+  private static final String TILL_SUFFIX = PrefixAdapter.buildSegmentTill("").substring(SEGMENT_PREFIX.length());
+
+  private final CustomStorageWrapper delegate;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final long versionCheckNanos;
+  private final long purgeIntervalNanos;
+  private final AtomicLong nextPurge = new AtomicLong(System.nanoTime());
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Version definitions;
+  private final ConcurrentHashMap<String, Version> segments = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder delegateReads = new LongAdder();
+
+  public NearCacheStorageWrapper(CustomStorageWrapper delegate) {
+    this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, DEFAULT_VERSION_CHECK_MILLIS);
+  }
+
+  public NearCacheStorageWrapper(CustomStorageWrapper delegate, int maxEntries, long ttlMillis, long versionCheckMillis) {
+    if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be greater than 0");
+    if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be greater than 0");
+    if (versionCheckMillis < 0) throw new IllegalArgumentException("versionCheckMillis must not be negative");
+    this.delegate = Objects.requireNonNull(delegate);
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttlMillis * 1_000_000L;
+    this.versionCheckNanos = versionCheckMillis * 1_000_000L;
+    this.purgeIntervalNanos = Math.min(ttlNanos, PURGE_INTERVAL_NANOS);
+    this.definitions = new Version(SPLITS_TILL, RULE_BASED_SEGMENTS_TILL);
+  }
+
+  // *** cached reads ***
+
+  @Override
+  public String get(String key) throws Exception {
+    Version version = versionFor(key);
+    if (version == null) {
+      return readThrough(() -> delegate.get(key));
+    }
+    String cacheKey = "g:" + key;
+    Object cached = lookup(cacheKey, version);
+    if (cached != null) {
+      return cached == NULL ? null : (String) cached;
+    }
+    long generation = version.generation;
+    String value = readThrough(() -> delegate.get(key));
+    store(cacheKey, value, version, generation);
+    return value;
+  }
+
+  @Override
+  public List<String> getMany(List<String> keys) throws Exception {
+    if (keys == null || keys.isEmpty() || !allDefinitions(keys)) {
+      return readThrough(() -> delegate.getMany(keys));
+    }
+    definitions.probe();
+    long generation = definitions.generation;
+    List<String> result = new ArrayList<>(keys.size());
+    List<String> missing = null;
+    List<Integer> missingAt = null;
+    for (String key : keys) {
+      Object cached = lookup("g:" + key, definitions);
+      if (cached == null) {
+        if (missing == null) {
+          missing = new ArrayList<>();
+          missingAt = new ArrayList<>();
+        }
+        missing.add(key);
+        missingAt.add(result.size());
+        result.add(null);
+      } else {
+        result.add(cached == NULL ? null : (String) cached);
+      }
+    }
+    if (missing == null) {
+      return result;
+    }
+    List<String> missingKeys = missing;
+    List<String> fetched = readThrough(() -> delegate.getMany(missingKeys));
+    for (int i = 0; i < missingKeys.size(); i++) {
+      String value = fetched != null && i < fetched.size() ? fetched.get(i) : null;
+      result.set(missingAt.get(i), value);
+      store("g:" + missingKeys.get(i), value, definitions, generation);
+    }
+    return result;
+  }
+
+  @Override
+  public Set<String> getKeysByPrefix(String prefix) throws Exception {
+    Version version = versionFor(prefix);
+    if (version == null) {
+      return readThrough(() -> delegate.getKeysByPrefix(prefix));
+    }
+    return cachedRead("k:" + prefix, version, () -> delegate.getKeysByPrefix(prefix));
+  }
+
+  @Override
+  public boolean itemContains(String key, String item) throws Exception {
+    Version version = versionFor(key);
+    if (version == null) {
+      return readThrough(() -> delegate.itemContains(key, item));
+    }
+    Boolean contained = cachedRead("c:" + key + '\u0000' + item, version, () -> delegate.itemContains(key, item));
+    return contained != null && contained;
+  }
+
+  @Override
+  public Set<String> getMembers(String key) throws Exception {
+    Version version = versionFor(key);
+    if (version == null) {
+      return readThrough(() -> delegate.getMembers(key));
+    }
+    return cachedRead("m:" + key, version, () -> delegate.getMembers(key));
+  }
+
+  @Override
+  public List<String> getItems(List<String> keys) throws Exception {
+    return readThrough(() -> delegate.getItems(keys));
+  }
+
+  @Override
+  public long getItemsCount(String key) throws Exception {
+    return readThrough(() -> delegate.getItemsCount(key));
+  }
+
+  // *** writes go to the delegate and drop any local copy ***
+
+  @Override
+  public void set(String key, String item) throws Exception {
+    delegate.set(key, item);
+    invalidate(key);
+  }
+
+  @Override
+  public void hSet(String key, String field, String json) throws Exception {
+    delegate.hSet(key, field, json);
+  }
+
+  @Override
+  public void delete(List<String> keys) throws Exception {
+    delegate.delete(keys);
+    keys.forEach(this::invalidate);
+  }
+
+  @Override
+  public String getAndSet(String key, String item) throws Exception {
+    String previous = delegate.getAndSet(key, item);
+    invalidate(key);
+    return previous;
+  }
+
+  @Override
+  public long increment(String key, long value) throws Exception {
+    return delegate.increment(key, value);
+  }
+
+  @Override
+  public long decrement(String key, long value) throws Exception {
+    return delegate.decrement(key, value);
+  }
+
+  @Override
+  public long hIncrement(String key, String field, long value) throws Exception {
+    return delegate.hIncrement(key, field, value);
+  }
+
+  @Override
+  public long pushItems(String key, List<String> items) throws Exception {
+    return delegate.pushItems(key, items);
+  }
+
+  @Override
+  public List<String> popItems(String key, long count) throws Exception {
+    return delegate.popItems(key, count);
+  }
+
+  @Override
+  public void addItems(String key, List<String> items) throws Exception {
+    delegate.addItems(key, items);
+    invalidate(key);
+  }
+
+  @Override
+  public void removeItems(String key, List<String> items) throws Exception {
+    delegate.removeItems(key, items);
+    invalidate(key);
+  }
+
+  @Override
+  public boolean connect() throws Exception {
+    return delegate.connect();
+  }
+
+  @Override
+  public boolean disconnect() throws Exception {
+    entries.clear();
+    return delegate.disconnect();
+  }
+
+  @Override
+  public Pipeline pipeline() throws Exception {
+    return delegate.pipeline();
+  }
+
+  /**
+   * Drops every locally cached value. The next read of each key goes to the delegate.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), delegateReads.sum(), entries.size());
+  }
+
+  // *** internals ***
+
+  private static final Object NULL = new Object();
+
+  @FunctionalInterface
+  private interface Read<T> {
+    T read() throws Exception;
+  }
+
+  private <T> T readThrough(Read<T> read) throws Exception {
+    delegateReads.increment();
+    return read.read();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T cachedRead(String cacheKey, Version version, Read<T> read) throws Exception {
+    Object cached = lookup(cacheKey, version);
+    if (cached != null) {
+      return cached == NULL ? null : (T) cached;
+    }
+    long generation = version.generation;
+    T value = readThrough(read);
+    store(cacheKey, value, version, generation);
+    return value;
+  }
+
+  private Object lookup(String cacheKey, Version version) throws Exception {
+    version.probe();
+    Entry entry = entries.get(cacheKey);
+    if (entry != null && entry.isValid(System.nanoTime())) {
+      hits.increment();
+      return entry.value;
+    }
+    misses.increment();
+    return null;
+  }
+
+  private void store(String cacheKey, Object value, Version version, long generation) {
+    if (generation != version.generation) {
+      // the version moved while we were reading, this value may already be outdated
+      return;
+    }
+    if (entries.size() >= maxEntries && !entries.containsKey(cacheKey)) {
+      purge();
+      if (entries.size() >= maxEntries) {
+        return;
+      }
+    }
+    entries.put(cacheKey, new Entry(value == null ? NULL : value, System.nanoTime() + ttlNanos, version, generation));
+  }
+
+  // a full cache of valid entries would otherwise be scanned on every miss, so scans are spaced out and done by one
+  // thread at a time
+  private void purge() {
+    long now = System.nanoTime();
+    long next = nextPurge.get();
+    if (now - next < 0 || !nextPurge.compareAndSet(next, now + purgeIntervalNanos)) {
+      return;
+    }
+    for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+      if (!it.next().getValue().isValid(now)) {
+        it.remove();
+      }
+    }
+  }
+
+  private void invalidate(String key) {
+    entries.remove("g:" + key);
+    entries.remove("m:" + key);
+    // writes are rare in consumer mode, scanning for the listings and membership checks that include the key is fine
+    String contains = "c:" + key + '\u0000';
+    entries.keySet().removeIf(cacheKey -> cacheKey.startsWith(contains)
+            || (cacheKey.startsWith("k:") && matchesPrefix(key, cacheKey.substring(2))));
+    if (key.startsWith(SEGMENT_PREFIX)) {
+      Version version = segments.get(key);
+      if (version != null) {
+        version.bump();
+      }
+    }
+  }
+
+  // listing prefixes are glob patterns such as "SPLITIO.split.*"
+  private static boolean matchesPrefix(String key, String pattern) {
+    int wildcard = pattern.indexOf('*');
+    return key.startsWith(wildcard < 0 ? pattern : pattern.substring(0, wildcard));
+  }
+
+  private boolean allDefinitions(List<String> keys) {
+    for (String key : keys) {
+      if (versionFor(key) != definitions) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Maps a storage key to the change number that guards it, or null when the key must not be cached.
+   */
+  private Version versionFor(String key) {
+    if (key == null || key.equals(SPLITS_TILL) || key.equals(RULE_BASED_SEGMENTS_TILL)) {
+      return null;
+    }
+    if (key.startsWith(SPLIT_PREFIX) || key.startsWith(RULE_BASED_SEGMENT_PREFIX)
+            || key.startsWith(TRAFFIC_TYPE_PREFIX) || key.startsWith(FLAG_SET_PREFIX)) {
+      return definitions;
+    }
+    if (key.startsWith(SEGMENT_PREFIX) && !key.endsWith(TILL_SUFFIX) && key.indexOf('*') < 0) {
+      return segments.computeIfAbsent(key, k -> new Version(k + TILL_SUFFIX));
+    }
+    return null;
+  }
+
+  private static final class Entry {
+    final Object value;
+    final long expiresAt;
+    final Version version;
+    final long generation;
+
+    Entry(Object value, long expiresAt, Version version, long generation) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+      this.version = version;
+      this.generation = generation;
+    }
+
+    boolean isValid(long now) {
+      return now - expiresAt < 0 && generation == version.generation;
+    }
+  }
+
+  /**
+   * Change numbers guarding a group of cached values. Every time the stored change numbers differ from the last
+   * probe, the generation moves forward and entries cached under the previous generation stop being served.
+   */
+  private final class Version {
+    private final List<String> tillKeys;
+    private volatile long generation;
+    private volatile long nextCheck = System.nanoTime();
+    private List<String> lastSeen;
+
+    Version(String... tillKeys) {
+      this.tillKeys = List.of(tillKeys);
+    }
+
+    void probe() throws Exception {
+      if (System.nanoTime() - nextCheck < 0) {
+        return;
+      }
+      synchronized (this) {
+        long now = System.nanoTime();
+        if (now - nextCheck < 0) {
+          return;
+        }
+        List<String> current = tillKeys.size() == 1
+                ? readThrough(() -> Collections.singletonList(delegate.get(tillKeys.get(0))))
+                : readThrough(() -> delegate.getMany(tillKeys));
+        if (!Objects.equals(current, lastSeen)) {
+          lastSeen = current;
+          generation++;
+        }
+        nextCheck = now + versionCheckNanos;
+      }
+    }
+
+    synchronized void bump() {
+      lastSeen = null;
+      generation++;
+    }
+  }
+
+  /**
+   * Point-in-time counters of the near-cache.
+   */
+  public static final class Stats {
+    private final long hits;
+    private final long misses;
+    private final long delegateReads;
+    private final int size;
+
+    Stats(long hits, long misses, long delegateReads, int size) {
+      this.hits = hits;
+      this.misses = misses;
+      this.delegateReads = delegateReads;
+      this.size = size;
+    }
+
+    public long hits() {
+      return hits;
+    }
+
+    public long misses() {
+      return misses;
+    }
+
+    /**
+     * Round-trips made to the delegate storage, including change number probes.
+     */
+    public long delegateReads() {
+      return delegateReads;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public double hitRatio() {
+      long total = hits + misses;
+      return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("hits=%d, misses=%d, hitRatio=%.4f, delegateReads=%d, size=%d",
+              hits, misses, hitRatio(), delegateReads, size);
+    }
+  }
+}
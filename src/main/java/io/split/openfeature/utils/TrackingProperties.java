@@ -0,0 +1,127 @@
+package io.split.openfeature.utils;
+
+import dev.openfeature.sdk.Structure;
+import dev.openfeature.sdk.Value;
+import dev.openfeature.sdk.exceptions.GeneralError;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts tracking event details into Split event properties, reading the details in place instead of deep-copying
+ * them with {@link Structure#asObjectMap()}.
+ * <p>
+ * Split only keeps strings, numbers, booleans and nulls as property values. Instants are sent as ISO-8601 strings, and
+ * nested structures and lists are dropped or flattened into dotted keys ({@code "cart.items.0"}) depending on the
+ * {@link NestedPolicy}. Limits are checked before anything is allocated, with the same size accounting as the SDK,
+ * which would otherwise drop the event after it was built.
+ */
+public final class TrackingProperties {
+
+  public enum NestedPolicy {
+    /** Nested structures and lists are left out. */
+    DROP,
+    /** Each value inside a nested structure or list becomes a property, named by its path. */
+    FLATTEN
+  }
+
+  public static final int DEFAULT_MAX_PROPERTIES = 300;
+  public static final int DEFAULT_MAX_SIZE = 32 * 1024;
+
+  // the SDK counts this much for every event on top of the keys and string values
+  private static final int BASE_SIZE = 1024;
+
+  private TrackingProperties() {
+  }
+
+  /**
+   * @param details details of the event
+   * @param policy what to do with nested structures and lists
+   * @param maxProperties maximum number of properties after flattening
+   * @param maxSize maximum size of the properties in bytes, as estimated by the SDK
+   * @return properties for the Split event, in a map sized for them
+   * @throws GeneralError if the properties exceed one of the limits
+   */
+  public static Map<String, Object> toProperties(Structure details, NestedPolicy policy, int maxProperties, int maxSize) {
+    Counter counter = new Counter();
+    for (String key : details.keySet()) {
+      count(key.length(), details.getValue(key), policy, counter);
+    }
+    if (counter.properties > maxProperties) {
+      throw new GeneralError(String.format("Event has %d properties, the maximum is %d", counter.properties, maxProperties));
+    }
+    if (counter.size > maxSize) {
+      throw new GeneralError(String.format("Event properties take %d bytes, the maximum is %d", counter.size, maxSize));
+    }
+    if (counter.properties == 0) {
+      return Map.of();
+    }
+
+    Map<String, Object> properties = new HashMap<>((int) (counter.properties / 0.75f) + 1);
+    for (String key : details.keySet()) {
+      put(key, details.getValue(key), policy, properties);
+    }
+    return properties;
+  }
+
+  private static void count(int keyLength, Value value, NestedPolicy policy, Counter counter) {
+    Object object = value == null ? null : value.asObject();
+    if (object instanceof Structure) {
+      if (policy == NestedPolicy.FLATTEN) {
+        Structure structure = (Structure) object;
+        for (String key : structure.keySet()) {
+          count(keyLength + 1 + key.length(), structure.getValue(key), policy, counter);
+        }
+      }
+    } else if (object instanceof List) {
+      if (policy == NestedPolicy.FLATTEN) {
+        List<?> list = (List<?>) object;
+        for (int i = 0; i < list.size(); i++) {
+          count(keyLength + 1 + digits(i), (Value) list.get(i), policy, counter);
+        }
+      }
+    } else {
+      counter.properties++;
+      counter.size += keyLength;
+      if (object instanceof String) {
+        counter.size += ((String) object).length();
+      } else if (object instanceof Instant) {
+        counter.size += object.toString().length();
+      }
+    }
+  }
+
+  private static void put(String key, Value value, NestedPolicy policy, Map<String, Object> properties) {
+    Object object = value == null ? null : value.asObject();
+    if (object instanceof Structure) {
+      if (policy == NestedPolicy.FLATTEN) {
+        Structure structure = (Structure) object;
+        for (String nested : structure.keySet()) {
+          put(key + "." + nested, structure.getValue(nested), policy, properties);
+        }
+      }
+    } else if (object instanceof List) {
+      if (policy == NestedPolicy.FLATTEN) {
+        List<?> list = (List<?>) object;
+        for (int i = 0; i < list.size(); i++) {
+          put(key + "." + i, (Value) list.get(i), policy, properties);
+        }
+      }
+    } else if (object instanceof Instant) {
+      properties.put(key, object.toString());
+    } else {
+      properties.put(key, object);
+    }
+  }
+
+  private static int digits(int i) {
+    return i < 10 ? 1 : (int) Math.log10(i) + 1;
+  }
+
+  private static final class Counter {
+    int properties = 0;
+    long size = BASE_SIZE;
+  }
+}
@@ -0,0 +1,160 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableTrackingEventDetails;
+import dev.openfeature.sdk.TrackingEventDetails;
+import dev.openfeature.sdk.Value;
+import io.split.client.SplitClientConfig;
+import io.split.client.SplitFactory;
+import io.split.client.SplitFactoryBuilder;
+import io.split.openfeature.testing.InMemorySplitClient;
+import io.split.openfeature.utils.Serialization;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per call on the evaluation and tracking paths, measured with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} on the test thread, against the localhost
+ * client over src/test/resources/split.yaml. Each path is warmed up first so class loading and JIT compilation are
+ * not counted.
+ * <p>
+ * Budgets are about twice what was measured when they were set (noted next to each), enough to absorb JIT and
+ * JDK differences but not a path that starts allocating twice as much. When a change legitimately moves a number,
+ * measure again and update the budget and the note together. The test is skipped on JVMs that can't measure
+ * per-thread allocation.
+ */
+public class AllocationBudgetTest {
+
+  private static final int WARM_UP = 20_000;
+  private static final int CALLS = 10_000;
+
+  static SplitFactory factory;
+  static SplitProvider provider;
+  static SplitProvider providerOnly;
+  static EvaluationContext context;
+  static com.sun.management.ThreadMXBean threads;
+
+  @BeforeAll
+  public static void init() throws Exception {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation is not measurable on this JVM");
+    threads = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+            "per-thread allocation is not measurable on this JVM");
+
+    SplitClientConfig config = SplitClientConfig.builder()
+            .splitFile("src/test/resources/split.yaml")
+            .setBlockUntilReadyTimeout(10000)
+            .build();
+    factory = SplitFactoryBuilder.build("localhost", config);
+    provider = new SplitProvider(factory, SplitProviderConfig.builder().build());
+    providerOnly = new SplitProvider(InMemorySplitClient.builder()
+            .flag("my_feature", "on")
+            .flag("int_feature", "32")
+            .flag("obj_feature", "{\"key\": \"value\"}")
+            .build());
+    context = new MutableContext("key").add("plan", "pro").add("seats", 12).add("trafficType", "user");
+  }
+
+  @AfterAll
+  public static void shutdown() {
+    if (factory != null) {
+      factory.destroy();
+    }
+  }
+
+  @Test
+  public void booleanEvaluationTest() {
+    // measured ~1.9 KB
+    assertBudget("getBooleanEvaluation", 4_000, () -> provider.getBooleanEvaluation("my_feature", false, context));
+  }
+
+  @Test
+  public void stringEvaluationTest() {
+    // measured ~1.9 KB
+    assertBudget("getStringEvaluation", 4_000, () -> provider.getStringEvaluation("some_other_feature", "", context));
+  }
+
+  @Test
+  public void integerEvaluationTest() {
+    // measured ~1.9 KB
+    assertBudget("getIntegerEvaluation", 4_000, () -> provider.getIntegerEvaluation("int_feature", 0, context));
+  }
+
+  @Test
+  public void doubleEvaluationTest() {
+    // measured ~1.9 KB
+    assertBudget("getDoubleEvaluation", 4_000, () -> provider.getDoubleEvaluation("int_feature", 0.0, context));
+  }
+
+  @Test
+  public void objectEvaluationTest() {
+    // measured ~8.9 KB, most of it parsing the JSON treatment into a Value
+    assertBudget("getObjectEvaluation", 18_000, () -> provider.getObjectEvaluation("obj_feature", new Value(), context));
+  }
+
+  @Test
+  public void missingFlagTest() {
+    // measured ~2.0 KB
+    assertBudget("getStringEvaluation (missing flag)", 4_000,
+            () -> provider.getStringEvaluation("non-existent-feature", "", context));
+  }
+
+  @Test
+  public void trackTest() {
+    TrackingEventDetails details = new MutableTrackingEventDetails(9.5).add("currency", "EUR");
+    // measured ~1.4 KB
+    assertBudget("track", 2_800, () -> provider.track("purchase", context, details));
+  }
+
+  @Test
+  public void providerOnlyEvaluationTest() {
+    // the provider's own share of an evaluation, with an in-memory client instead of the SDK; measured ~0.7 KB
+    assertBudget("getBooleanEvaluation (provider only)", 1_500,
+            () -> providerOnly.getBooleanEvaluation("my_feature", false, context));
+    assertBudget("getIntegerEvaluation (provider only)", 1_500,
+            () -> providerOnly.getIntegerEvaluation("int_feature", 0, context));
+  }
+
+  @Test
+  public void providerOnlyObjectEvaluationTest() {
+    // measured ~8.0 KB: parsing the JSON treatment is the provider's, so this is most of the full path
+    assertBudget("getObjectEvaluation (provider only)", 16_000,
+            () -> providerOnly.getObjectEvaluation("obj_feature", new Value(), context));
+  }
+
+  @Test
+  public void providerOnlyTrackTest() {
+    TrackingEventDetails details = new MutableTrackingEventDetails(9.5).add("currency", "EUR");
+    // measured ~0.5 KB
+    assertBudget("track (provider only)", 1_000, () -> providerOnly.track("purchase", context, details));
+  }
+
+  @Test
+  public void serializationTest() {
+    String json = "{\"string\":\"blah\",\"int\":10,\"bool\":true,\"struct\":{\"foo\":\"bar\"},\"list\":[1,true]}";
+    // measured ~3.9 KB
+    assertBudget("Serialization.stringToMap", 8_000, () -> Serialization.stringToMap(json));
+  }
+
+  private static void assertBudget(String path, long budgetBytes, Runnable call) {
+    for (int i = 0; i < WARM_UP; i++) {
+      call.run();
+    }
+    long thread = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < CALLS; i++) {
+      call.run();
+    }
+    long perCall = (threads.getThreadAllocatedBytes(thread) - before) / CALLS;
+    assertTrue(perCall <= budgetBytes, String.format("%s allocated %d bytes per call, budget is %d", path, perCall, budgetBytes));
+  }
+}
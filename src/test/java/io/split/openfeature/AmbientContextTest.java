@@ -0,0 +1,119 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableTrackingEventDetails;
+import dev.openfeature.sdk.exceptions.TargetingKeyMissingError;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AmbientContextTest {
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(mockSplitClient.getTreatmentWithConfig(anyString(), anyString(), anyMap()))
+            .thenReturn(new SplitResult("on", null));
+  }
+
+  @Test
+  public void evaluationUsesAmbientContextTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+    Map<String, Object> attributes = Map.of("plan", "pro");
+    AmbientContext ambient = AmbientContext.of("alice", attributes);
+
+    boolean value = ambient.supply(() -> provider.getBooleanEvaluation("flag", false, new ImmutableContext()).getValue());
+
+    assertTrue(value);
+    // the bound attributes are passed as they are, without conversion
+    verify(mockSplitClient).getTreatmentWithConfig(eq("alice"), eq("flag"),
+            ArgumentMatchers.<Map<String, Object>>argThat(map -> map == ambient.attributes()));
+    assertNull(AmbientContext.current());
+    assertThrows(TargetingKeyMissingError.class,
+            () -> provider.getBooleanEvaluation("flag", false, new ImmutableContext()));
+  }
+
+  @Test
+  public void explicitContextWinsTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+
+    AmbientContext.of("alice", Map.of("plan", "pro", "country", "ar")).run(() -> {
+      // a targeting key in the call replaces the ambient context
+      provider.getBooleanEvaluation("flag", false, new ImmutableContext("bob"));
+      // attributes without a key are added to the ambient ones
+      provider.getBooleanEvaluation("flag", false, new MutableContext().add("plan", "free"));
+    });
+
+    verify(mockSplitClient).getTreatmentWithConfig("bob", "flag", Map.of("targetingKey", "bob"));
+    verify(mockSplitClient).getTreatmentWithConfig("alice", "flag", Map.of("plan", "free", "country", "ar"));
+  }
+
+  @Test
+  public void trackUsesAmbientContextTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+
+    AmbientContext.from(new MutableContext("alice").add("trafficType", "user")).run(() ->
+            provider.track("purchase", new ImmutableContext(), new MutableTrackingEventDetails(3)));
+
+    verify(mockSplitClient).track("alice", "user", "purchase", 3.0, Map.of());
+  }
+
+  @Test
+  public void bindingsAreScopedAndWrappedAcrossThreadsTest() throws Exception {
+    AmbientContext outer = AmbientContext.of("outer", Map.of());
+    AmbientContext inner = AmbientContext.of("inner", Map.of());
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // the pool thread is started outside any scope
+      executor.submit(() -> { }).get();
+
+      Future<AmbientContext> wrapped = outer.call(() -> {
+        inner.run(() -> assertSame(inner, AmbientContext.current()));
+        assertSame(outer, AmbientContext.current());
+        return executor.submit(AmbientContext.wrap(AmbientContext::current));
+      });
+      assertSame(outer, wrapped.get());
+      // the pool thread doesn't keep the binding after the wrapped task
+      assertNull(executor.submit(AmbientContext::current).get());
+
+      Future<?> viaExecutor = outer.supply(() -> {
+        CompletableFuture<AmbientContext> seen = new CompletableFuture<>();
+        AmbientContext.wrap(executor).execute(() -> seen.complete(AmbientContext.current()));
+        return seen;
+      });
+      assertSame(outer, viaExecutor.get());
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+    assertNull(AmbientContext.current());
+    assertThrows(IllegalArgumentException.class, () -> AmbientContext.of("", Map.of()));
+    assertEquals("inner", inner.targetingKey());
+  }
+}
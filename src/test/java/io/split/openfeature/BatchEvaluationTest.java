@@ -0,0 +1,132 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.exceptions.GeneralError;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchEvaluationTest {
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @Mock
+  private SplitClient mockNonRecordingClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(mockNonRecordingClient.getTreatmentsWithConfig(anyString(), anyList(), anyMap())).thenAnswer(invocation -> {
+      String key = invocation.getArgument(0);
+      Map<String, Object> attributes = invocation.getArgument(2);
+      return Map.of("first", new SplitResult(key, null), "second", new SplitResult(String.valueOf(attributes.get("plan")), null));
+    });
+  }
+
+  @Test
+  public void evaluatesEveryRowWithoutImpressionsTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .nonRecordingClient(mockNonRecordingClient)
+            .batchParallelism(4)
+            .batchChunkSize(7)
+            .build());
+    Map<String, Map<String, SplitResult>> results = new ConcurrentHashMap<>();
+
+    BatchReport report = provider.evaluateBatch(
+            IntStream.range(0, 1000).mapToObj(i -> BatchRow.of("key" + i, Map.of("plan", i % 2 == 0 ? "pro" : "free"))),
+            List.of("first", "second"),
+            (row, result) -> results.put(row.getKey(), result));
+
+    assertEquals(1000, report.rows());
+    assertEquals(1000, results.size());
+    assertEquals("key42", results.get("key42").get("first").treatment());
+    assertEquals("pro", results.get("key42").get("second").treatment());
+    assertEquals("free", results.get("key43").get("second").treatment());
+    verify(mockNonRecordingClient).getTreatmentsWithConfig(eq("key42"), eq(List.of("first", "second")), anyMap());
+    verify(mockSplitClient, never()).getTreatmentsWithConfig(anyString(), anyList(), anyMap());
+  }
+
+  @Test
+  public void boundedMemoryTest() {
+    int parallelism = 2;
+    int chunkSize = 10;
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .nonRecordingClient(mockNonRecordingClient)
+            .batchParallelism(parallelism)
+            .batchChunkSize(chunkSize)
+            .build());
+    AtomicLong read = new AtomicLong();
+    AtomicLong done = new AtomicLong();
+    AtomicLong maxAhead = new AtomicLong();
+    Iterator<BatchRow> rows = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return read.get() < 10_000;
+      }
+
+      @Override
+      public BatchRow next() {
+        maxAhead.accumulateAndGet(read.incrementAndGet() - done.get(), Math::max);
+        return BatchRow.of("key" + read.get());
+      }
+    };
+
+    provider.evaluateBatch(rows, List.of("first"), (row, result) -> done.incrementAndGet());
+
+    assertEquals(10_000, done.get());
+    // the chunks being evaluated plus the one being read
+    assertTrue(maxAhead.get() <= (parallelism * 2 + 1) * chunkSize, "rows held in memory: " + maxAhead.get());
+  }
+
+  @Test
+  public void failureStopsTheBatchTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .nonRecordingClient(mockNonRecordingClient)
+            .batchChunkSize(10)
+            .build());
+    AtomicInteger evaluated = new AtomicInteger();
+
+    GeneralError error = assertThrows(GeneralError.class, () -> provider.evaluateBatch(
+            IntStream.range(0, 100_000).mapToObj(i -> BatchRow.of("key" + i)),
+            List.of("first"),
+            (row, result) -> {
+              if (evaluated.incrementAndGet() == 50) {
+                throw new IllegalStateException("sink failed");
+              }
+            }));
+
+    assertEquals("sink failed", error.getCause().getMessage());
+    assertTrue(evaluated.get() < 100_000);
+  }
+
+  @Test
+  public void nonRecordingClientRequiredTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder().build());
+
+    assertThrows(GeneralError.class, () -> provider.evaluateBatch(
+            List.of(BatchRow.of("key")).iterator(), List.of("first"), (row, result) -> { }));
+    verify(mockSplitClient, never()).getTreatmentsWithConfig(anyString(), anyList(), anyMap());
+  }
+}
@@ -273,9 +273,14 @@ public class ClientTest {
   }
 
   @Test
-  public void destroySplitClientTest() {
+  public void destroySplitClientTest() throws InterruptedException {
     assertEquals("32", splitClient.getTreatment("key","int_feature"));
     openFeatureAPI.shutdown();
+    // OpenFeature shuts providers down asynchronously, give it a bounded amount of time to complete
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!"control".equals(splitClient.getTreatment("key","int_feature")) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
     assertEquals("control", splitClient.getTreatment("key","int_feature"));
   }
 
@@ -0,0 +1,176 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Reason;
+import dev.openfeature.sdk.exceptions.FlagNotFoundError;
+import dev.openfeature.sdk.exceptions.TargetingKeyMissingError;
+import io.split.client.SplitClient;
+import io.split.client.SplitFactory;
+import io.split.client.SplitManager;
+import io.split.client.api.SplitResult;
+import io.split.client.api.SplitView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EvaluationSessionTest {
+
+  EvaluationContext evaluationContext;
+  String key;
+  SplitProvider provider;
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @Mock
+  private SplitFactory mockSplitFactory;
+
+  @Mock
+  private SplitManager mockSplitManager;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+
+    key = "key";
+    evaluationContext = new MutableContext(key).add("plan", "pro");
+    when(mockSplitFactory.client()).thenReturn(mockSplitClient);
+    when(mockSplitFactory.manager()).thenReturn(mockSplitManager);
+    when(mockSplitManager.splits()).thenReturn(List.of(view("first", 1), view("second", 1)));
+    when(mockSplitClient.getTreatmentsWithConfig(eq(key), eq(List.of("first", "second")), anyMap()))
+            .thenReturn(Map.of("first", new SplitResult("on", null), "second", new SplitResult("32", "{}")));
+  }
+
+  @AfterEach
+  public void shutdown() {
+    if (provider != null) {
+      provider.shutdown();
+    }
+  }
+
+  @Test
+  public void servesFromMemoryTest() {
+    provider = new SplitProvider(mockSplitFactory, SplitProviderConfig.builder().build());
+    EvaluationSession session = provider.openSession(evaluationContext, List.of("first", "second"));
+
+    for (int i = 0; i < 100; i++) {
+      ProviderEvaluation<Boolean> first = session.getBooleanEvaluation("first", false);
+      assertTrue(first.getValue());
+      assertEquals("on", first.getVariant());
+      assertEquals(Reason.CACHED.name(), first.getReason());
+      assertNull(first.getErrorCode());
+
+      ProviderEvaluation<Integer> second = session.getIntegerEvaluation("second", 0);
+      assertEquals(32, second.getValue());
+      assertEquals("{}", second.getFlagMetadata().getString("config"));
+    }
+    verify(mockSplitClient, times(1)).getTreatmentsWithConfig(eq(key), eq(List.of("first", "second")), anyMap());
+  }
+
+  @Test
+  public void flagOutsideSessionTest() {
+    provider = new SplitProvider(mockSplitFactory, SplitProviderConfig.builder().build());
+    EvaluationSession session = provider.openSession(evaluationContext, List.of("first", "second"));
+
+    assertThrows(FlagNotFoundError.class, () -> session.getStringEvaluation("third", "default"));
+  }
+
+  @Test
+  public void targetingKeyRequiredTest() {
+    provider = new SplitProvider(mockSplitFactory, SplitProviderConfig.builder().build());
+
+    assertThrows(TargetingKeyMissingError.class, () -> provider.openSession(new MutableContext(), List.of("first")));
+  }
+
+  @Test
+  public void reevaluatesOnlyUpdatedFlagsTest() throws InterruptedException {
+    provider = new SplitProvider(mockSplitFactory, SplitProviderConfig.builder()
+            .changePollInterval(10)
+            .sessionRefreshInterval(0)
+            .build());
+    EvaluationSession session = provider.openSession(evaluationContext, List.of("first", "second"));
+    BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+    session.addListener((flag, previous, current) -> changes.add(flag + ":" + previous.treatment() + "->" + current.treatment()));
+
+    when(mockSplitClient.getTreatmentsWithConfig(eq(key), eq(List.of("first")), anyMap()))
+            .thenReturn(Map.of("first", new SplitResult("off", null)));
+    when(mockSplitManager.splits()).thenReturn(List.of(view("first", 2), view("second", 1)));
+
+    assertEquals("first:on->off", changes.poll(5, TimeUnit.SECONDS));
+    assertEquals("off", session.getStringEvaluation("first", "default").getValue());
+    assertEquals("32", session.getStringEvaluation("second", "default").getValue());
+    verify(mockSplitClient, times(1)).getTreatmentsWithConfig(eq(key), eq(List.of("first")), anyMap());
+  }
+
+  @Test
+  public void periodicRefreshTest() throws InterruptedException {
+    // without a manager there is no way to know about updates, sessions are refreshed periodically instead
+    provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .sessionRefreshInterval(10)
+            .build());
+    EvaluationSession session = provider.openSession(evaluationContext, List.of("first", "second"));
+    BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+    session.addListener((flag, previous, current) -> changes.add(flag));
+
+    when(mockSplitClient.getTreatmentsWithConfig(eq(key), eq(List.of("first", "second")), anyMap()))
+            .thenReturn(Map.of("first", new SplitResult("on", null), "second", new SplitResult("64", "{}")));
+
+    assertEquals("second", changes.poll(5, TimeUnit.SECONDS));
+    assertEquals(64, session.getIntegerEvaluation("second", 0).getValue());
+    assertNull(changes.poll(50, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void overridesApplyToSessionsTest() throws InterruptedException {
+    provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .sessionRefreshInterval(0)
+            .build());
+    provider.setOverrides(FlagOverrides.builder().flag("second", "16").build());
+    when(mockSplitClient.getTreatmentsWithConfig(eq(key), eq(List.of("first")), anyMap()))
+            .thenReturn(Map.of("first", new SplitResult("on", null)));
+    when(mockSplitClient.getTreatmentsWithConfig(eq(key), eq(List.of("second")), anyMap()))
+            .thenReturn(Map.of("second", new SplitResult("32", "{}")));
+    EvaluationSession session = provider.openSession(evaluationContext, List.of("first", "second"));
+    BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+    session.addListener((flag, previous, current) -> changes.add(flag + ":" + previous.treatment() + "->" + current.treatment()));
+
+    assertEquals(16, session.getIntegerEvaluation("second", 0).getValue());
+    verify(mockSplitClient, times(1)).getTreatmentsWithConfig(eq(key), eq(List.of("first")), anyMap());
+
+    provider.setOverrides(FlagOverrides.builder().flag("second", "8").build());
+    assertEquals("second:16->8", changes.poll(5, TimeUnit.SECONDS));
+
+    // without the override the session is back to the client's result
+    provider.setOverrides(FlagOverrides.NONE);
+    assertEquals("second:8->32", changes.poll(5, TimeUnit.SECONDS));
+    assertEquals(32, session.getIntegerEvaluation("second", 0).getValue());
+    assertEquals("on", session.getStringEvaluation("first", "default").getValue());
+  }
+
+  private SplitView view(String name, long changeNumber) {
+    SplitView view = new SplitView();
+    view.name = name;
+    view.changeNumber = changeNumber;
+    return view;
+  }
+}
@@ -0,0 +1,128 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.NoOpProvider;
+import dev.openfeature.sdk.OpenFeatureAPI;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Reason;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FlagOverridesTest {
+
+  private static final String DOMAIN = "overrides";
+
+  @TempDir
+  Path directory;
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(mockSplitClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenReturn(new SplitResult("on", null));
+  }
+
+  @AfterEach
+  public void shutdown() throws Exception {
+    OpenFeatureAPI.getInstance().setProviderAndWait(DOMAIN, new NoOpProvider());
+  }
+
+  @Test
+  public void overridesSkipTheSdkTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+    provider.setOverrides(FlagOverrides.builder()
+            .flag("circuit-breaker", "off", "{\"reason\": \"incident\"}")
+            .key("new-checkout", "qa-user", "off")
+            .build());
+
+    ProviderEvaluation<Boolean> forced = provider.getBooleanEvaluation("circuit-breaker", true, new MutableContext("key"));
+    assertEquals(false, forced.getValue());
+    assertEquals("off", forced.getVariant());
+    assertEquals(FlagOverrides.REASON, forced.getReason());
+    assertEquals("{\"reason\": \"incident\"}", forced.getFlagMetadata().getString("config"));
+    verify(mockSplitClient, never()).getTreatmentWithConfig(anyString(), eq("circuit-breaker"), anyMap());
+
+    // keys without an override of their own go to the SDK
+    assertEquals(false, provider.getBooleanEvaluation("new-checkout", true, new MutableContext("qa-user")).getValue());
+    ProviderEvaluation<Boolean> evaluated = provider.getBooleanEvaluation("new-checkout", false, new MutableContext("other"));
+    assertEquals(true, evaluated.getValue());
+    assertEquals(Reason.TARGETING_MATCH.name(), evaluated.getReason());
+    verify(mockSplitClient).getTreatmentWithConfig(eq("other"), eq("new-checkout"), anyMap());
+    verify(mockSplitClient, never()).getTreatmentWithConfig(eq("qa-user"), anyString(), anyMap());
+
+    provider.setOverrides(FlagOverrides.NONE);
+    assertEquals(true, provider.getBooleanEvaluation("circuit-breaker", false, new MutableContext("key")).getValue());
+    assertSame(FlagOverrides.NONE, provider.getOverrides());
+  }
+
+  @Test
+  public void swapEmitsChangedFlagsTest() throws Exception {
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+    BlockingQueue<List<String>> changes = new LinkedBlockingQueue<>();
+    OpenFeatureAPI.getInstance().setProviderAndWait(DOMAIN, provider);
+    OpenFeatureAPI.getInstance().getClient(DOMAIN).onProviderConfigurationChanged(details -> changes.add(details.getFlagsChanged()));
+
+    provider.setOverrides(FlagOverrides.builder().flag("a", "off").flag("b", "off").build());
+    assertEquals(List.of("a", "b"), changes.poll(5, TimeUnit.SECONDS));
+    provider.setOverrides(FlagOverrides.builder().flag("a", "off").flag("b", "on").build());
+    assertEquals(List.of("b"), changes.poll(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void overridesFileIsWatchedTest() throws Exception {
+    Path file = directory.resolve("overrides.yaml");
+    Files.writeString(file, "- circuit-breaker:\n    treatment: \"off\"\n"
+            + "- new-checkout:\n    treatment: \"off\"\n    keys: [\"qa-user\"]\n");
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .overridesFile(file)
+            .build());
+
+    assertEquals("off", provider.getStringEvaluation("circuit-breaker", "x", new MutableContext("key")).getValue());
+    assertEquals("off", provider.getStringEvaluation("new-checkout", "x", new MutableContext("qa-user")).getValue());
+    assertEquals("on", provider.getStringEvaluation("new-checkout", "x", new MutableContext("other")).getValue());
+
+    Files.writeString(file, "- circuit-breaker:\n    treatment: \"on\"\n");
+    long deadline = System.currentTimeMillis() + 10000;
+    while (provider.getOverrides().flagNames().contains("new-checkout")) {
+      assertTrue(System.currentTimeMillis() < deadline, "overrides not reloaded");
+      Thread.sleep(20);
+    }
+    ProviderEvaluation<String> evaluation = provider.getStringEvaluation("circuit-breaker", "x", new MutableContext("key"));
+    assertEquals("on", evaluation.getValue());
+    assertEquals(FlagOverrides.REASON, evaluation.getReason());
+    provider.shutdown();
+  }
+
+  @Test
+  public void builderValidationTest() {
+    assertThrows(IllegalArgumentException.class, () -> FlagOverrides.builder().flag(null, "on"));
+    assertThrows(IllegalArgumentException.class, () -> FlagOverrides.builder().key("flag", null, "on"));
+    assertTrue(FlagOverrides.builder().build().isEmpty());
+  }
+}
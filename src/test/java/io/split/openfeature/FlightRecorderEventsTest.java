@@ -0,0 +1,134 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableTrackingEventDetails;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class FlightRecorderEventsTest {
+
+  EvaluationContext evaluationContext;
+  SplitProvider provider;
+  Path dump;
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    evaluationContext = new MutableContext("key").add("trafficType", "user");
+    provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder().build());
+    dump = Files.createTempFile("split-provider", ".jfr");
+  }
+
+  @AfterEach
+  public void cleanUp() throws Exception {
+    Files.deleteIfExists(dump);
+  }
+
+  @Test
+  public void evaluationEventsTest() throws Exception {
+    when(mockSplitClient.getTreatmentWithConfig(eq("key"), eq("flag"), anyMap())).thenReturn(new SplitResult("on", null));
+    when(mockSplitClient.getTreatmentWithConfig(eq("key"), eq("missing"), anyMap())).thenReturn(new SplitResult("control", null));
+    when(mockSplitClient.getTreatmentWithConfig(eq("key"), eq("bad"), anyMap())).thenReturn(new SplitResult("blue", null));
+
+    List<RecordedEvent> events = record("io.split.openfeature.Evaluation", () -> {
+      provider.getBooleanEvaluation("flag", false, evaluationContext);
+      provider.getStringEvaluation("missing", "default", evaluationContext);
+      try {
+        provider.getIntegerEvaluation("bad", 0, evaluationContext);
+      } catch (RuntimeException expected) {
+        // recorded with its error code
+      }
+    });
+
+    Map<String, RecordedEvent> byFlag = events.stream().collect(Collectors.toMap(e -> e.getString("flag"), e -> e));
+    RecordedEvent flag = byFlag.get("flag");
+    assertEquals("Boolean", flag.getString("type"));
+    assertEquals("on", flag.getString("treatment"));
+    assertEquals("TARGETING_MATCH", flag.getString("reason"));
+    assertNull(flag.getString("errorCode"));
+    assertFalse(flag.getBoolean("cached"));
+
+    assertEquals(ErrorCode.FLAG_NOT_FOUND.name(), byFlag.get("missing").getString("errorCode"));
+    assertEquals("ERROR", byFlag.get("bad").getString("reason"));
+    assertEquals(ErrorCode.GENERAL.name(), byFlag.get("bad").getString("errorCode"));
+  }
+
+  @Test
+  public void sessionEvaluationEventsAreCachedTest() throws Exception {
+    when(mockSplitClient.getTreatmentsWithConfig(eq("key"), eq(List.of("flag")), anyMap()))
+            .thenReturn(Map.of("flag", new SplitResult("on", null)));
+    EvaluationSession session = provider.openSession(evaluationContext, List.of("flag"));
+
+    List<RecordedEvent> events = record("io.split.openfeature.Evaluation",
+            () -> session.getBooleanEvaluation("flag", false));
+
+    assertEquals(1, events.size());
+    assertTrue(events.get(0).getBoolean("cached"));
+    assertEquals("CACHED", events.get(0).getString("reason"));
+    session.close();
+  }
+
+  @Test
+  public void trackAndLifecycleEventsTest() throws Exception {
+    when(mockSplitClient.track(anyString(), anyString(), anyString(), eq(9.5), anyMap())).thenReturn(true);
+
+    List<RecordedEvent> track = record("io.split.openfeature.Track",
+            () -> provider.track("purchase", evaluationContext, new MutableTrackingEventDetails(9.5).add("currency", "EUR")));
+    assertEquals(1, track.size());
+    assertEquals("purchase", track.get(0).getString("eventName"));
+    assertEquals("user", track.get(0).getString("trafficType"));
+    assertEquals(1, track.get(0).getInt("properties"));
+    assertTrue(track.get(0).getBoolean("accepted"));
+
+    List<RecordedEvent> lifecycle = record("io.split.openfeature.Lifecycle", () -> {
+      provider.initialize(evaluationContext);
+      provider.shutdown();
+    });
+    assertEquals(List.of(LifecycleEvent.INITIALIZE, LifecycleEvent.SHUTDOWN),
+            lifecycle.stream().map(e -> e.getString("phase")).collect(Collectors.toList()));
+    assertTrue(lifecycle.get(0).getBoolean("complete"));
+  }
+
+  private List<RecordedEvent> record(String eventName, Runnable body) throws Exception {
+    try (Recording recording = new Recording()) {
+      // the default threshold would only record slow evaluations
+      recording.enable(eventName).withThreshold(Duration.ZERO);
+      recording.start();
+      body.run();
+      recording.stop();
+      recording.dump(dump);
+    }
+    return RecordingFile.readAllEvents(dump).stream()
+            .filter(e -> e.getEventType().getName().equals(eventName))
+            .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,116 @@
+package io.split.openfeature;
+
+import io.split.client.SplitClient;
+import io.split.client.SplitFactory;
+import io.split.client.SplitManager;
+import io.split.client.api.SplitView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.when;
+
+public class FreshnessTest {
+
+  SplitProvider provider;
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @Mock
+  private SplitFactory mockSplitFactory;
+
+  @Mock
+  private SplitManager mockSplitManager;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(mockSplitFactory.client()).thenReturn(mockSplitClient);
+    when(mockSplitFactory.manager()).thenReturn(mockSplitManager);
+  }
+
+  @AfterEach
+  public void shutdown() {
+    if (provider != null) {
+      provider.shutdown();
+    }
+  }
+
+  @Test
+  public void lagAndRatesTest() {
+    FreshnessTracker tracker = new FreshnessTracker();
+    // definitions loaded by the SDK at startup only set the baseline
+    tracker.record(Set.of(), Map.of("first", 1_000L, "second", 2_000L), 100_000);
+    Freshness freshness = tracker.snapshot(100_000);
+    assertEquals(0, freshness.getLastUpdate());
+    assertEquals(-1, freshness.getMillisSinceLastUpdate());
+    assertEquals(2_000, freshness.getNewestChangeNumber());
+    assertEquals(98_000, freshness.getMillisSinceNewestChange());
+    assertEquals(-1, freshness.getLastLag());
+
+    tracker.record(Set.of("first"), Map.of("first", 105_000L, "second", 2_000L), 105_400);
+    tracker.record(Set.of("second"), Map.of("first", 105_000L, "second", 110_000L), 112_000);
+    // removed flags are updates without a lag
+    tracker.record(Set.of("first"), Map.of("second", 110_000L), 170_000);
+
+    freshness = tracker.snapshot(171_000);
+    assertEquals(170_000, freshness.getLastUpdate());
+    assertEquals(1_000, freshness.getMillisSinceLastUpdate());
+    assertEquals(110_000, freshness.getNewestChangeNumber());
+    assertEquals(2_000, freshness.getLastLag());
+    assertEquals(2_000, freshness.getMaxLag());
+    assertEquals(3, freshness.getUpdates());
+    // the update at 105400 is more than a minute old
+    assertEquals(2, freshness.getUpdatesLastMinute());
+    assertEquals(0, tracker.snapshot(240_000).getUpdatesLastMinute());
+  }
+
+  @Test
+  public void providerPollsForUpdatesTest() throws InterruptedException {
+    long now = System.currentTimeMillis();
+    when(mockSplitManager.splits()).thenReturn(List.of(view("first", now - 60_000)));
+    provider = new SplitProvider(mockSplitFactory, SplitProviderConfig.builder()
+            .freshness(true)
+            .changePollInterval(20)
+            .build());
+    assertEquals(now - 60_000, provider.getFreshness().getNewestChangeNumber());
+    assertEquals(0, provider.getFreshness().getUpdates());
+
+    // changed in Split 300 ms ago, the provider sees it on its next poll
+    when(mockSplitManager.splits()).thenReturn(List.of(view("first", System.currentTimeMillis() - 300)));
+    long deadline = System.currentTimeMillis() + 2000;
+    while (provider.getFreshness().getUpdates() == 0) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("update not seen");
+      }
+      Thread.sleep(10);
+    }
+    Freshness freshness = provider.getFreshness();
+    assertEquals(1, freshness.getUpdatesLastMinute());
+    assertTrue(freshness.getLastLag() >= 300 && freshness.getLastLag() < 2000, freshness.toString());
+  }
+
+  @Test
+  public void disabledWithoutManagerTest() {
+    provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder().freshness(true).build());
+    assertNull(provider.getFreshness());
+  }
+
+  private SplitView view(String name, long changeNumber) {
+    SplitView view = new SplitView();
+    view.name = name;
+    view.changeNumber = changeNumber;
+    return view;
+  }
+}
@@ -0,0 +1,112 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ImpressionPolicyTest {
+
+  private final EvaluationContext context = new MutableContext("key");
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @Mock
+  private SplitClient mockNonRecordingClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(mockSplitClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenReturn(new SplitResult("on", null));
+    when(mockNonRecordingClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenReturn(new SplitResult("on", null));
+  }
+
+  @Test
+  public void resolutionOrderTest() {
+    ImpressionPolicy sampled = ImpressionPolicy.sampled(0.1);
+    ImpressionPolicies policies = new ImpressionPolicies(Map.of(
+            "kill-*", ImpressionPolicy.NONE,
+            "kill-checkout-*", sampled,
+            "kill-checkout-v2", ImpressionPolicy.FULL));
+
+    assertSame(ImpressionPolicy.NONE, policies.resolve("kill-search"));
+    assertSame(sampled, policies.resolve("kill-checkout-v1"));
+    assertSame(ImpressionPolicy.FULL, policies.resolve("kill-checkout-v2"));
+    assertSame(ImpressionPolicy.FULL, policies.resolve("experiment"));
+    // cached resolutions give the same answer
+    assertSame(sampled, policies.resolve("kill-checkout-v1"));
+    assertSame(ImpressionPolicy.FULL, ImpressionPolicy.sampled(1));
+    assertSame(ImpressionPolicy.NONE, ImpressionPolicy.sampled(0));
+  }
+
+  @Test
+  public void suppressedEvaluationsSkipImpressionsTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .nonRecordingClient(mockNonRecordingClient)
+            .impressionPolicy("kill-*", ImpressionPolicy.NONE)
+            .build());
+
+    assertTrue(provider.getBooleanEvaluation("kill-search", false, context).getValue());
+    assertTrue(provider.getBooleanEvaluation("experiment", false, context).getValue());
+
+    verify(mockNonRecordingClient).getTreatmentWithConfig(eq("key"), eq("kill-search"), anyMap());
+    verify(mockSplitClient, never()).getTreatmentWithConfig(anyString(), eq("kill-search"), anyMap());
+    verify(mockSplitClient).getTreatmentWithConfig(eq("key"), eq("experiment"), anyMap());
+  }
+
+  @Test
+  public void sampledImpressionsTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .nonRecordingClient(mockNonRecordingClient)
+            .impressionPolicy("hot-flag", ImpressionPolicy.sampled(0.2))
+            .build());
+    int evaluations = 10000;
+    for (int i = 0; i < evaluations; i++) {
+      provider.getBooleanEvaluation("hot-flag", false, context);
+    }
+
+    int recorded = (int) mockingDetails(mockSplitClient).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("getTreatmentWithConfig"))
+            .count();
+    // 2000 expected, 6 standard deviations either way
+    assertTrue(recorded > 1760 && recorded < 2240, "recorded: " + recorded);
+    verify(mockNonRecordingClient, times(evaluations - recorded)).getTreatmentWithConfig(anyString(), eq("hot-flag"), anyMap());
+  }
+
+  @Test
+  public void validationTest() {
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder()
+            .impressionPolicy("kill-*", ImpressionPolicy.NONE)
+            .build());
+    assertThrows(IllegalArgumentException.class, () -> ImpressionPolicy.sampled(1.1));
+    // full impressions don't need a non-recording client
+    assertEquals(1, SplitProviderConfig.builder()
+            .impressionPolicy("experiment", ImpressionPolicy.FULL)
+            .build().impressionPolicies().size());
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder()
+            .nonRecordingClient(mock(SplitClient.class))
+            .impressionPolicy("", ImpressionPolicy.NONE)
+            .build());
+  }
+}
@@ -0,0 +1,157 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.Client;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.NoOpProvider;
+import dev.openfeature.sdk.OpenFeatureAPI;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class LocalhostFileWatchTest {
+
+  private static final String DOMAIN = "localhost-watch";
+
+  @TempDir
+  Path directory;
+
+  Path first;
+  Path second;
+  BlockingQueue<List<String>> changes;
+  Client client;
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    first = directory.resolve("first.yaml");
+    second = directory.resolve("second.yaml");
+    write(first, "- my_feature:\n    treatment: \"on\"\n    keys: \"key\"\n    config: \"{\\\"size\\\": 10}\"\n"
+            + "- my_feature:\n    treatment: \"off\"\n"
+            + "- int_feature:\n    treatment: \"32\"\n"
+            + "- keyed_feature:\n    treatment: \"blue\"\n    keys: [\"a\", \"b\"]\n");
+    write(second, "- other_feature:\n    treatment: \"off\"\n");
+    changes = new LinkedBlockingQueue<>();
+  }
+
+  @AfterEach
+  public void shutdown() throws Exception {
+    // replacing the provider shuts it down
+    OpenFeatureAPI.getInstance().setProviderAndWait(DOMAIN, new NoOpProvider());
+  }
+
+  @Test
+  public void evaluatesFromFilesTest() throws Exception {
+    SplitProvider provider = watch();
+
+    assertEquals("on", provider.getStringEvaluation("my_feature", "default", new MutableContext("key")).getValue());
+    assertEquals("{\"size\": 10}",
+            provider.getStringEvaluation("my_feature", "default", new MutableContext("key")).getFlagMetadata().getString("config"));
+    assertEquals("off", provider.getStringEvaluation("my_feature", "default", new MutableContext("other")).getValue());
+    assertEquals(32, provider.getIntegerEvaluation("int_feature", 0, new MutableContext("key")).getValue());
+    assertEquals("blue", provider.getStringEvaluation("keyed_feature", "default", new MutableContext("b")).getValue());
+    // only keyed entries: every other key gets control, so the default
+    assertEquals("default", provider.getStringEvaluation("keyed_feature", "default", new MutableContext("c")).getValue());
+    assertEquals("off", provider.getStringEvaluation("other_feature", "default", new MutableContext("key")).getValue());
+    assertEquals("default", provider.getStringEvaluation("missing", "default", new MutableContext("key")).getValue());
+    verify(mockSplitClient, never()).getTreatmentWithConfig(anyString(), anyString(), anyMap());
+  }
+
+  @Test
+  public void reloadsOnlyChangedFlagsTest() throws Exception {
+    SplitProvider provider = watch();
+
+    write(first, "- my_feature:\n    treatment: \"on\"\n    keys: \"key\"\n    config: \"{\\\"size\\\": 10}\"\n"
+            + "- my_feature:\n    treatment: \"off\"\n"
+            + "- int_feature:\n    treatment: \"64\"\n"
+            + "- keyed_feature:\n    treatment: \"blue\"\n    keys: [\"a\", \"b\"]\n");
+
+    assertEquals(List.of("int_feature"), changes.poll(10, TimeUnit.SECONDS));
+    assertEquals(64, provider.getIntegerEvaluation("int_feature", 0, new MutableContext("key")).getValue());
+    assertEquals("on", provider.getStringEvaluation("my_feature", "default", new MutableContext("key")).getValue());
+  }
+
+  @Test
+  public void reloadUpdatesSessionsTest() throws Exception {
+    SplitProvider provider = watch();
+    EvaluationSession session = provider.openSession(new MutableContext("key"), List.of("int_feature", "other_feature"));
+    BlockingQueue<String> sessionChanges = new LinkedBlockingQueue<>();
+    session.addListener((flag, previous, current) -> sessionChanges.add(flag + ":" + previous.treatment() + "->" + current.treatment()));
+    assertEquals(32, session.getIntegerEvaluation("int_feature", 0).getValue());
+
+    write(second, "- other_feature:\n    treatment: \"on\"\n");
+    assertEquals("other_feature:off->on", sessionChanges.poll(10, TimeUnit.SECONDS));
+    assertEquals("on", session.getStringEvaluation("other_feature", "default").getValue());
+    verify(mockSplitClient, never()).getTreatmentsWithConfig(anyString(), anyList(), anyMap());
+  }
+
+  @Test
+  public void replacedFileTest() throws Exception {
+    SplitProvider provider = watch();
+
+    // deploy tools usually write a temporary file and rename it over the watched one
+    Path temporary = directory.resolve("second.yaml.tmp");
+    write(temporary, "- other_feature:\n    treatment: \"on\"\n- new_feature:\n    treatment: \"v2\"\n");
+    Files.move(temporary, second, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    assertEquals(List.of("new_feature", "other_feature"), changes.poll(10, TimeUnit.SECONDS));
+    assertEquals("v2", provider.getStringEvaluation("new_feature", "default", new MutableContext("key")).getValue());
+  }
+
+  @Test
+  public void invalidFileKeepsFlagsTest() throws Exception {
+    SplitProvider provider = watch();
+
+    write(second, "- other_feature: [not: a, valid: entry\n");
+    assertNull(changes.poll(500, TimeUnit.MILLISECONDS));
+    assertEquals("off", provider.getStringEvaluation("other_feature", "default", new MutableContext("key")).getValue());
+
+    write(second, "- other_feature:\n    treatment: \"on\"\n");
+    assertEquals(List.of("other_feature"), changes.poll(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void unchangedFileEmitsNothingTest() throws Exception {
+    watch();
+
+    write(second, "- other_feature:\n    treatment: \"off\"\n");
+    assertNull(changes.poll(500, TimeUnit.MILLISECONDS));
+  }
+
+  private SplitProvider watch() throws Exception {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .watchLocalhostFiles(List.of(first, second))
+            .build());
+    OpenFeatureAPI.getInstance().setProviderAndWait(DOMAIN, provider);
+    client = OpenFeatureAPI.getInstance().getClient(DOMAIN);
+    client.onProviderConfigurationChanged(details -> changes.add(details.getFlagsChanged()));
+    return provider;
+  }
+
+  private static void write(Path file, String content) throws Exception {
+    Files.writeString(file, content);
+  }
+}
@@ -0,0 +1,160 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableTrackingEventDetails;
+import io.split.client.SplitClient;
+import io.split.client.api.SplitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MemoryReportTest {
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @Mock
+  private SplitClient mockNonRecordingClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(mockSplitClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenReturn(new SplitResult("on", null));
+    when(mockNonRecordingClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenReturn(new SplitResult("on", null));
+  }
+
+  @Test
+  public void componentsAndFlagsTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .flagUsage(true)
+            .nonRecordingClient(mockNonRecordingClient)
+            .impressionPolicy("kill-*", ImpressionPolicy.NONE)
+            .trackPolicy("page-view", TrackPolicy.deduplicated(60000))
+            .trackDedupCapacity(1000)
+            .build());
+    provider.setOverrides(FlagOverrides.builder()
+            .flag("circuit-breaker", "off")
+            .key("new-checkout", "qa-user-1", "off")
+            .key("new-checkout", "qa-user-2", "off")
+            .build());
+    EvaluationContext context = new MutableContext("key");
+    provider.getBooleanEvaluation("kill-search", false, context);
+    provider.getBooleanEvaluation("experiment", false, context);
+
+    MemoryReport report = provider.getMemoryReport();
+    Map<String, Long> components = report.getComponents();
+    assertTrue(components.keySet().containsAll(List.of(MemoryReport.OVERRIDES,
+            MemoryReport.IMPRESSION_POLICY_CACHE, MemoryReport.FLAG_USAGE, MemoryReport.TRACK_POLICIES)), components.toString());
+    assertFalse(components.containsKey(MemoryReport.TRACK_AGGREGATES));
+    assertEquals(components.values().stream().mapToLong(Long::longValue).sum(), report.getTotal());
+    // the registry is shared by every provider, it is reported apart
+    assertTrue(report.getClientRegistry() > 0);
+    assertEquals(0, report.getOffHeap());
+    // 1000 keys take 16384 bits in each of the two filters
+    assertTrue(components.get(MemoryReport.TRACK_POLICIES) > 4096);
+
+    Map<String, Long> flags = report.getFlags();
+    assertTrue(flags.keySet().containsAll(List.of("circuit-breaker", "new-checkout", "kill-search", "experiment")));
+    // two per-key results against one result for every key
+    assertTrue(flags.get("new-checkout") > flags.get("circuit-breaker"));
+    assertEquals(0, report.getLimit());
+    assertEquals(0, report.getEvicted());
+    assertFalse(report.isOverLimit());
+  }
+
+  @Test
+  public void limitEvictsCachesTest() throws Exception {
+    long limit = 50_000;
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .flagUsage(true)
+            .nonRecordingClient(mockNonRecordingClient)
+            .impressionPolicy("kill-*", ImpressionPolicy.NONE)
+            .aggregateTrackEvents(List.of("purchase"))
+            .memoryLimit(limit)
+            .memoryCheckInterval(60000)
+            .build());
+    EvaluationContext context = new MutableContext("key");
+    for (int i = 0; i < 500; i++) {
+      provider.getBooleanEvaluation("flag-" + i, false, context);
+    }
+    Thread.sleep(5);
+    provider.getBooleanEvaluation("hot-flag", false, context);
+    MutableContext trackContext = new MutableContext("key");
+    trackContext.add("trafficType", "user");
+    provider.track("purchase", trackContext, new MutableTrackingEventDetails(10));
+
+    MemoryReport report = provider.getMemoryReport();
+    assertTrue(report.getEvicted() > 0);
+    assertEquals(limit, report.getLimit());
+    // cached resolutions go first, then aggregates are sent, then the least recently evaluated flags
+    assertEquals(0L, report.getComponents().get(MemoryReport.IMPRESSION_POLICY_CACHE));
+    verify(mockSplitClient).track(eq("key"), eq("user"), eq("purchase"), anyDouble(), anyMap());
+    Map<String, FlagUsage> usage = provider.getFlagUsage();
+    assertTrue(usage.size() < 500);
+    assertTrue(usage.containsKey("hot-flag"));
+    assertTrue(report.getTotal() <= limit, report.toString());
+    assertFalse(report.isOverLimit());
+  }
+
+  @Test
+  public void limitIsCheckedPeriodicallyTest() throws Exception {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .flagUsage(true)
+            .memoryLimit(1)
+            .memoryCheckInterval(20)
+            .build());
+    provider.setOverrides(FlagOverrides.builder().flag("circuit-breaker", "off").build());
+    EvaluationContext context = new MutableContext("key");
+    for (int i = 0; i < 100; i++) {
+      provider.getBooleanEvaluation("flag-" + i, false, context);
+    }
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!provider.getFlagUsage().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "usage counters not evicted");
+      Thread.sleep(20);
+    }
+    // overrides can't be evicted
+    assertTrue(provider.getMemoryReport().isOverLimit());
+    provider.shutdown();
+  }
+
+  @Test
+  public void recorderBufferIsOffHeapTest(@TempDir Path directory) {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .recordEvaluations(directory.resolve("evaluations.bin"), 1)
+            .memoryLimit(1024)
+            .build());
+    provider.getBooleanEvaluation("flag", false, new MutableContext("key"));
+
+    MemoryReport report = provider.getMemoryReport();
+    assertTrue(report.getOffHeap() > 1024, report.toString());
+    assertFalse(report.isOverLimit(), report.toString());
+    provider.shutdown();
+  }
+
+  @Test
+  public void validationTest() {
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder().memoryLimit(-1).build());
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder().memoryCheckInterval(0).build());
+    assertEquals(0, SplitProviderConfig.builder().build().memoryLimit());
+  }
+}
@@ -11,16 +11,23 @@ import dev.openfeature.sdk.Value;
 import dev.openfeature.sdk.exceptions.GeneralError;
 import dev.openfeature.sdk.exceptions.OpenFeatureError;
 import io.split.client.SplitClient;
+import io.split.client.SplitFactory;
+import io.split.client.SplitManager;
 import io.split.client.api.SplitResult;
+import io.split.client.api.SplitView;
+import io.split.openfeature.utils.TrackingProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -28,9 +35,17 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -529,6 +544,217 @@ public class SplitProviderTest {
     verifyNoMoreInteractions(mockSplitClient);
   }
 
+  @Test
+  public void trackDropsNestedPropertiesTest() {
+    // by default nested structures and lists, which Split can't store, are left out
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+    EvaluationContext ctx = new MutableContext(key).add("trafficType", "user");
+    Instant when = Instant.parse("2025-01-02T03:04:05Z");
+    TrackingEventDetails details = new MutableTrackingEventDetails(1)
+            .add("plan", "pro")
+            .add("seats", 3)
+            .add("at", when)
+            .add("cart", new MutableStructure().add("items", 2))
+            .add("tags", List.of(new Value("a")));
+
+    provider.track("purchase", ctx, details);
+
+    verify(mockSplitClient).track(eq(key), eq("user"), eq("purchase"), eq(1.0),
+            eq(Map.of("plan", "pro", "seats", 3, "at", when.toString())));
+  }
+
+  @Test
+  public void trackFlattensNestedPropertiesTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .trackNestedProperties(TrackingProperties.NestedPolicy.FLATTEN)
+            .build());
+    EvaluationContext ctx = new MutableContext(key).add("trafficType", "user");
+    TrackingEventDetails details = new MutableTrackingEventDetails(1)
+            .add("plan", "pro")
+            .add("cart", new MutableStructure().add("items", 2).add("coupon", new MutableStructure().add("code", "X")))
+            .add("tags", List.of(new Value("a"), new Value(true)));
+
+    provider.track("purchase", ctx, details);
+
+    verify(mockSplitClient).track(eq(key), eq("user"), eq("purchase"), eq(1.0), eq(Map.of(
+            "plan", "pro", "cart.items", 2, "cart.coupon.code", "X", "tags.0", "a", "tags.1", true)));
+  }
+
+  @Test
+  public void trackPropertyLimitsTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .trackMaxProperties(2)
+            .trackMaxPropertiesSize(1100)
+            .build());
+    EvaluationContext ctx = new MutableContext(key).add("trafficType", "user");
+
+    GeneralError tooMany = assertThrows(GeneralError.class, () -> provider.track("purchase", ctx,
+            new MutableTrackingEventDetails().add("a", 1).add("b", 2).add("c", 3)));
+    assertTrue(tooMany.getMessage().contains("3 properties"));
+    // the SDK counts 1024 bytes plus the keys and string values
+    assertThrows(GeneralError.class, () -> provider.track("purchase", ctx,
+            new MutableTrackingEventDetails().add("description", "x".repeat(100))));
+    verify(mockSplitClient, times(0)).track(anyString(), anyString(), anyString(), anyDouble(), anyMap());
+
+    provider.track("purchase", ctx, new MutableTrackingEventDetails().add("description", "x".repeat(50)));
+    verify(mockSplitClient).track(eq(key), eq("user"), eq("purchase"), eq(0.0), eq(Map.of("description", "x".repeat(50))));
+  }
+
+  // *** Warm-up tests ***
+
+  @Test
+  public void warmUpDoesNotEvaluateWithProviderClientTest() throws Exception {
+    // the warm-up must not generate impressions through the provider's own client
+    SplitProviderConfig config = SplitProviderConfig.builder()
+            .warmUp(List.of("flagName"))
+            .warmUpIterations(10)
+            .build();
+    SplitProvider provider = new SplitProvider(mockSplitClient, config);
+    provider.initialize(evaluationContext);
+
+    verify(mockSplitClient).blockUntilReady();
+    verifyNoMoreInteractions(mockSplitClient);
+  }
+
+  @Test
+  public void warmUpUsesNonRecordingClientTest() throws Exception {
+    SplitClient nonRecordingClient = mock(SplitClient.class);
+    when(nonRecordingClient.getTreatmentWithConfig(anyString(), eq("flagName"), anyMap()))
+            .thenReturn(new SplitResult("on", null));
+    SplitProviderConfig config = SplitProviderConfig.builder()
+            .warmUp(List.of("flagName"))
+            .warmUpIterations(10)
+            .nonRecordingClient(nonRecordingClient)
+            .build();
+    SplitProvider provider = new SplitProvider(mockSplitClient, config);
+    provider.initialize(evaluationContext);
+
+    verify(nonRecordingClient, times(10)).getTreatmentWithConfig(startsWith("openfeature-warm-up-"), eq("flagName"), anyMap());
+    verify(mockSplitClient).blockUntilReady();
+    verifyNoMoreInteractions(mockSplitClient);
+  }
+
+  @Test
+  public void warmUpAllFlagsFromManagerTest() throws Exception {
+    SplitFactory factory = mock(SplitFactory.class);
+    SplitManager manager = mock(SplitManager.class);
+    when(factory.client()).thenReturn(mockSplitClient);
+    when(factory.manager()).thenReturn(manager);
+    SplitView view = new SplitView();
+    view.name = "flagName";
+    view.treatments = List.of("on", "off");
+    view.configs = Map.of("on", "{\"color\": \"blue\"}");
+    when(manager.splitNames()).thenReturn(List.of("flagName"));
+    when(manager.split("flagName")).thenReturn(view);
+
+    SplitProviderConfig config = SplitProviderConfig.builder()
+            .warmUp(List.of())
+            .warmUpIterations(10)
+            .build();
+    SplitProvider provider = new SplitProvider(factory, config);
+    provider.initialize(evaluationContext);
+
+    verify(manager).splitNames();
+    verify(manager).split("flagName");
+    verify(mockSplitClient).blockUntilReady();
+    verifyNoMoreInteractions(mockSplitClient);
+  }
+
+  @Test
+  public void warmUpStopsAtTimeoutTest() throws Exception {
+    SplitProviderConfig config = SplitProviderConfig.builder()
+            .warmUp(List.of("flagName"))
+            .warmUpIterations(Integer.MAX_VALUE)
+            .warmUpTimeout(50)
+            .build();
+    SplitProvider provider = new SplitProvider(mockSplitClient, config);
+
+    long start = System.nanoTime();
+    provider.initialize(evaluationContext);
+    assertTrue(System.nanoTime() - start < 5_000_000_000L);
+  }
+
+  @Test
+  public void warmUpStopsAtTimeoutWithinRoundTest() throws Exception {
+    // 200 flags at 20 ms each: a single round takes 4 s
+    List<String> flags = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      flags.add("flag-" + i);
+    }
+    SplitClient nonRecordingClient = mock(SplitClient.class);
+    when(nonRecordingClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenAnswer(invocation -> {
+      Thread.sleep(20);
+      return new SplitResult("on", null);
+    });
+    SplitProviderConfig config = SplitProviderConfig.builder()
+            .warmUp(flags)
+            .warmUpIterations(1)
+            .warmUpTimeout(100)
+            .nonRecordingClient(nonRecordingClient)
+            .build();
+    SplitProvider provider = new SplitProvider(mockSplitClient, config);
+
+    long start = System.nanoTime();
+    provider.initialize(evaluationContext);
+    assertTrue(System.nanoTime() - start < 1_000_000_000L);
+  }
+
+  // *** Flag usage tests ***
+
+  @Test
+  public void flagUsageTest() {
+    SplitFactory factory = mock(SplitFactory.class);
+    SplitManager manager = mock(SplitManager.class);
+    when(factory.client()).thenReturn(mockSplitClient);
+    when(factory.manager()).thenReturn(manager);
+    when(manager.splitNames()).thenReturn(List.of("hot", "retired"));
+    when(mockSplitClient.getTreatmentWithConfig(eq(key), eq("hot"), anyMap()))
+            .thenReturn(new SplitResult("on", null), new SplitResult("off", null), new SplitResult("on", null));
+    when(mockSplitClient.getTreatmentWithConfig(eq(key), eq("missing"), anyMap())).thenReturn(new SplitResult("control", null));
+
+    SplitProvider provider = new SplitProvider(factory, SplitProviderConfig.builder().flagUsage(true).build());
+    long before = System.currentTimeMillis();
+    for (int i = 0; i < 3; i++) {
+      provider.getBooleanEvaluation("hot", false, evaluationContext);
+      provider.getStringEvaluation("missing", "default", evaluationContext);
+    }
+
+    Map<String, FlagUsage> usage = provider.getFlagUsage();
+    assertEquals(3, usage.size());
+
+    FlagUsage hot = usage.get("hot");
+    assertEquals(3, hot.getEvaluations());
+    assertEquals(Map.of("on", 2L, "off", 1L), hot.getTreatments());
+    assertTrue(hot.getLastEvaluated() >= before);
+    assertFalse(hot.isAlwaysControl());
+
+    assertTrue(usage.get("missing").isAlwaysControl());
+    assertTrue(usage.get("retired").isNeverEvaluated());
+  }
+
+  @Test
+  public void flagUsageIsBoundedTest() {
+    FlagUsageTracker tracker = new FlagUsageTracker();
+    for (int i = 0; i < FlagUsageTracker.MAX_FLAGS + 5; i++) {
+      tracker.record("flag-" + i, "on");
+    }
+    tracker.record("flag-0", "off");
+
+    Map<String, FlagUsage> usage = tracker.snapshot(null);
+    assertEquals(FlagUsageTracker.MAX_FLAGS, usage.size());
+    assertEquals(2, usage.get("flag-0").getEvaluations());
+    assertEquals(5, tracker.droppedFlags());
+  }
+
+  @Test
+  public void flagUsageDisabledTest() {
+    when(mockSplitClient.getTreatmentWithConfig(eq(key), eq("hot"), anyMap())).thenReturn(new SplitResult("on", null));
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+    provider.getBooleanEvaluation("hot", false, evaluationContext);
+
+    assertTrue(provider.getFlagUsage().isEmpty());
+  }
+
   @Test
   public void destroySplitClientTest() {
     SplitProvider provider = new SplitProvider(mockSplitClient);
@@ -536,6 +762,146 @@ public class SplitProviderTest {
     verify(mockSplitClient).destroy();
   }
 
+  @Test
+  public void shutdownRespectsDeadlineTest() {
+    // a backend that never answers must not hold the shutdown past its deadline
+    CountDownLatch never = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      never.await();
+      return null;
+    }).when(mockSplitClient).destroy();
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+
+    long start = System.nanoTime();
+    ShutdownReport report = provider.shutdown(100);
+    assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    assertFalse(report.complete());
+    assertEquals(1, report.dropped().size());
+    assertTrue(report.flushed().isEmpty());
+    never.countDown();
+  }
+
+  @Test
+  public void shutdownFlushesProvidersInParallelTest() {
+    // each destroy only completes once both are running, which can't happen if they run one after the other
+    CountDownLatch bothFlushing = new CountDownLatch(2);
+    SplitClient otherSplitClient = mock(SplitClient.class);
+    for (SplitClient client : List.of(mockSplitClient, otherSplitClient)) {
+      doAnswer(invocation -> {
+        bothFlushing.countDown();
+        bothFlushing.await();
+        return null;
+      }).when(client).destroy();
+    }
+    // a module of its own, the shared one has the clients of every other test
+    SplitModule module = new SplitModule();
+    module.register(mockSplitClient, "provider");
+    module.register(otherSplitClient, "provider");
+
+    ShutdownReport report = module.shutdown(5000);
+    assertTrue(report.complete());
+    assertEquals(2, report.flushed().size());
+    verify(mockSplitClient).destroy();
+    verify(otherSplitClient).destroy();
+  }
+
+  @Test
+  public void shutdownDeregistersClientTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient);
+    assertTrue(SplitModule.getInstance().isRegistered(mockSplitClient));
+
+    provider.shutdown(5000);
+    assertFalse(SplitModule.getInstance().isRegistered(mockSplitClient));
+  }
+
+  @Test
+  public void providersSharingClientFlushTheirOwnEventsTest() {
+    SplitModule module = new SplitModule();
+    AtomicInteger firstFlushes = new AtomicInteger();
+    AtomicInteger secondFlushes = new AtomicInteger();
+    module.register(mockSplitClient, "first", () -> firstFlushes.incrementAndGet());
+    module.register(mockSplitClient, "second", () -> secondFlushes.incrementAndGet());
+
+    // the first provider only sends its own events, the client is still used by the second
+    ShutdownReport report = module.shutdown(mockSplitClient, "first", 5000);
+    assertEquals(1, report.aggregatedEvents());
+    assertEquals(1, firstFlushes.get());
+    assertEquals(0, secondFlushes.get());
+    verify(mockSplitClient, never()).destroy();
+    assertTrue(module.isRegistered(mockSplitClient));
+
+    module.register(mockSplitClient, "third", () -> 2);
+    report = module.shutdown(5000);
+    assertEquals(3, report.aggregatedEvents());
+    assertEquals(1, firstFlushes.get());
+    assertEquals(1, secondFlushes.get());
+    verify(mockSplitClient).destroy();
+    assertFalse(module.isRegistered(mockSplitClient));
+  }
+
+  @Test
+  public void providerOfPrivateModuleTest() {
+    SplitModule module = new SplitModule();
+    SplitProvider provider = new SplitProvider(module, mockSplitClient, SplitProviderConfig.builder().build());
+    assertTrue(module.isRegistered(mockSplitClient));
+    assertFalse(SplitModule.getInstance().isRegistered(mockSplitClient));
+
+    provider.shutdown(5000);
+    assertFalse(module.isRegistered(mockSplitClient));
+    verify(mockSplitClient).destroy();
+  }
+
+  @Test
+  public void readinessTimeoutLeavesNothingRegisteredTest() throws Exception {
+    doThrow(new TimeoutException()).when(mockSplitClient).blockUntilReady();
+
+    assertThrows(GeneralError.class, () -> new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .aggregateTrackEvents(List.of("purchase"))
+            .build()));
+    assertFalse(SplitModule.getInstance().isRegistered(mockSplitClient));
+  }
+
+  @Test
+  public void moduleInitCreatesOneFactoryTest() throws Exception {
+    SplitModule module = new SplitModule();
+    SplitFactory factory = mock(SplitFactory.class);
+    when(factory.client()).thenReturn(mockSplitClient);
+    AtomicInteger created = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        module.init(() -> {
+          created.incrementAndGet();
+          return factory;
+        });
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join(5000);
+    }
+
+    assertEquals(1, created.get());
+    assertEquals(mockSplitClient, module.getClient());
+    verify(mockSplitClient).blockUntilReady();
+
+    // once the shared client is gone a new factory can be created
+    module.shutdown(mockSplitClient, "provider", 5000);
+    module.init(() -> {
+      created.incrementAndGet();
+      return factory;
+    });
+    assertEquals(2, created.get());
+  }
+
   private Value mapToValue(Map<String, Value> map) {
     return new Value(new MutableStructure(map));
   }
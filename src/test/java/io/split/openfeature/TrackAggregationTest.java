@@ -0,0 +1,133 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableTrackingEventDetails;
+import io.split.client.SplitClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TrackAggregationTest {
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  public void valuesAreAggregatedPerKeyTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .aggregateTrackEvents(List.of("latency"))
+            .build());
+    for (double value : new double[]{12, 3, 40}) {
+      provider.track("latency", context("alice"), new MutableTrackingEventDetails(value).add("ignored", "x"));
+    }
+    provider.track("latency", context("bob"), new MutableTrackingEventDetails(7));
+    provider.track("checkout", context("alice"), new MutableTrackingEventDetails(1));
+
+    // only events that are not aggregated are sent right away
+    verify(mockSplitClient, times(1)).track(anyString(), anyString(), anyString(), anyDouble(), anyMap());
+    verify(mockSplitClient).track("alice", "user", "checkout", 1.0, Map.of());
+
+    assertEquals(2, provider.flushTrackAggregates());
+    verify(mockSplitClient).track("alice", "user", "latency", 55.0, Map.of("count", 3L, "min", 3.0, "max", 40.0));
+    verify(mockSplitClient).track("bob", "user", "latency", 7.0, Map.of("count", 1L, "min", 7.0, "max", 7.0));
+    assertEquals(0, provider.flushTrackAggregates());
+  }
+
+  @Test
+  public void concurrentValuesAreNotLostTest() throws InterruptedException {
+    TrackAggregator aggregator = new TrackAggregator(Set.of("revenue"));
+    int threads = 8;
+    int perThread = 20000;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < perThread; i++) {
+          aggregator.record("key" + (i % 10), "user", "revenue", 1);
+        }
+      });
+      worker.start();
+      workers.add(worker);
+    }
+    // flushes concurrently with the recording, every value lands in one of them
+    start.countDown();
+    for (int i = 0; i < 20; i++) {
+      aggregator.flush(mockSplitClient);
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    aggregator.flush(mockSplitClient);
+
+    ArgumentCaptor<Double> sums = ArgumentCaptor.forClass(Double.class);
+    verify(mockSplitClient, atLeast(10))
+            .track(anyString(), eq("user"), eq("revenue"), sums.capture(), anyMap());
+    assertEquals((double) threads * perThread, sums.getAllValues().stream().mapToDouble(Double::doubleValue).sum());
+    assertEquals(0, aggregator.size());
+  }
+
+  @Test
+  public void aggregatesAreSentPeriodicallyTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .aggregateTrackEvents(List.of("latency"))
+            .trackAggregationInterval(100)
+            .build());
+    provider.track("latency", context("alice"), new MutableTrackingEventDetails(5));
+
+    verify(mockSplitClient, timeout(2000))
+            .track("alice", "user", "latency", 5.0, Map.of("count", 1L, "min", 5.0, "max", 5.0));
+    provider.shutdown(1000);
+  }
+
+  @Test
+  public void aggregatesAreSentOnShutdownTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .aggregateTrackEvents(List.of("latency", "revenue"))
+            .build());
+    provider.track("latency", context("alice"), new MutableTrackingEventDetails(5));
+    provider.track("revenue", context("alice"), new MutableTrackingEventDetails(10));
+    verify(mockSplitClient, never()).track(anyString(), anyString(), anyString(), anyDouble(), anyMap());
+
+    ShutdownReport report = provider.shutdown(1000);
+
+    assertEquals(2, report.aggregatedEvents());
+    verify(mockSplitClient).track("alice", "user", "revenue", 10.0, Map.of("count", 1L, "min", 10.0, "max", 10.0));
+    verify(mockSplitClient).destroy();
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder().trackAggregationInterval(0).build());
+  }
+
+  private static EvaluationContext context(String key) {
+    return new MutableContext(key).add("trafficType", "user");
+  }
+}
@@ -0,0 +1,141 @@
+package io.split.openfeature;
+
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.MutableTrackingEventDetails;
+import io.split.client.SplitClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TrackPolicyTest {
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  public void sampledEventsAreReweightedTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .trackPolicy("page.view", TrackPolicy.sampled(0.1))
+            .build());
+    int events = 20000;
+    for (int i = 0; i < events; i++) {
+      provider.track("page.view", context("key" + i), new MutableTrackingEventDetails(2));
+    }
+
+    TrackStats stats = provider.getTrackStats().get("page.view");
+    assertEquals(events, stats.getPassed() + stats.getDropped());
+    assertEquals(0, stats.getDeduplicated());
+    // 2000 expected, 6 standard deviations either way
+    assertTrue(stats.getPassed() > 1600 && stats.getPassed() < 2400, stats.toString());
+
+    ArgumentCaptor<Double> values = ArgumentCaptor.forClass(Double.class);
+    verify(mockSplitClient, times((int) stats.getPassed()))
+            .track(anyString(), eq("user"), eq("page.view"), values.capture(), anyMap());
+    values.getAllValues().forEach(value -> assertEquals(20.0, value, 1e-9));
+  }
+
+  @Test
+  public void repeatedEventsAreDroppedWithinWindowTest() throws InterruptedException {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .trackPolicy("search.performed", TrackPolicy.deduplicated(200))
+            .build());
+    for (int i = 0; i < 5; i++) {
+      provider.track("search.performed", context("alice"), null);
+      provider.track("search.performed", context("bob"), null);
+    }
+    // events without a policy are untouched
+    provider.track("checkout", context("alice"), null);
+    provider.track("checkout", context("alice"), null);
+
+    verify(mockSplitClient, times(1)).track(eq("alice"), eq("user"), eq("search.performed"), eq(0.0), eq(Map.of()));
+    verify(mockSplitClient, times(1)).track(eq("bob"), eq("user"), eq("search.performed"), eq(0.0), eq(Map.of()));
+    verify(mockSplitClient, times(2)).track(eq("alice"), eq("user"), eq("checkout"), eq(0.0), eq(Map.of()));
+    TrackStats stats = provider.getTrackStats().get("search.performed");
+    assertEquals(2, stats.getPassed());
+    assertEquals(8, stats.getDeduplicated());
+    assertFalse(provider.getTrackStats().containsKey("checkout"));
+
+    // a key is let through again at most two windows later
+    Thread.sleep(450);
+    provider.track("search.performed", context("alice"), null);
+    verify(mockSplitClient, times(2)).track(eq("alice"), eq("user"), eq("search.performed"), eq(0.0), eq(Map.of()));
+  }
+
+  @Test
+  public void dedupFilterWindowsTest() {
+    DedupFilter filter = new DedupFilter(1000, 1000, 0);
+    assertTrue(filter.firstSeen("a", 0));
+    assertFalse(filter.firstSeen("a", 999));
+    // rotated once, "a" is still in the previous generation
+    assertTrue(filter.firstSeen("b", 1000));
+    assertFalse(filter.firstSeen("a", 1500));
+    assertFalse(filter.firstSeen("b", 1999));
+    // rotated twice, "a" is gone and "b" is in the previous generation
+    assertTrue(filter.firstSeen("a", 2000));
+    assertFalse(filter.firstSeen("b", 2000));
+    // idle for more than a window, both generations are cleared
+    assertTrue(filter.firstSeen("a", 5000));
+    assertTrue(filter.firstSeen("b", 5000));
+  }
+
+  @Test
+  public void dedupFilterFalsePositiveRateTest() {
+    int capacity = 10000;
+    DedupFilter filter = new DedupFilter(60000, capacity, 0);
+    for (int i = 0; i < capacity; i++) {
+      filter.firstSeen("user-" + i, 0);
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < capacity; i++) {
+      if (!filter.firstSeen("other-" + i, 0)) {
+        falsePositives++;
+      }
+    }
+    // about 1% once the filter holds its capacity, and the probed keys fill it further
+    assertTrue(falsePositives < capacity * 3 / 100, "false positives: " + falsePositives);
+  }
+
+  @Test
+  public void combinedPolicyAndValidationTest() {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .trackPolicy("page.view", TrackPolicy.of(0.5, 60000))
+            .build());
+    for (int i = 0; i < 100; i++) {
+      provider.track("page.view", context("alice"), new MutableTrackingEventDetails(1));
+    }
+    TrackStats stats = provider.getTrackStats().get("page.view");
+    assertEquals(1, stats.getPassed());
+    assertEquals(99, stats.getSampledOut() + stats.getDeduplicated());
+    verify(mockSplitClient, times(1)).track(eq("alice"), eq("user"), eq("page.view"), eq(2.0), eq(Map.of()));
+
+    assertThrows(IllegalArgumentException.class, () -> TrackPolicy.sampled(0));
+    assertThrows(IllegalArgumentException.class, () -> TrackPolicy.sampled(1.5));
+    assertThrows(IllegalArgumentException.class, () -> TrackPolicy.deduplicated(-1));
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder().trackPolicy(" ", TrackPolicy.sampled(1)).build());
+    assertThrows(IllegalArgumentException.class, () -> SplitProviderConfig.builder().trackDedupCapacity(0).build());
+  }
+
+  private static EvaluationContext context(String key) {
+    return new MutableContext(key).add("trafficType", "user");
+  }
+}
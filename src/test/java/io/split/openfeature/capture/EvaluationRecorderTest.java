@@ -0,0 +1,146 @@
+package io.split.openfeature.capture;
+
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.Value;
+import io.split.client.SplitClient;
+import io.split.client.SplitClientConfig;
+import io.split.client.SplitFactory;
+import io.split.client.SplitFactoryBuilder;
+import io.split.client.api.SplitResult;
+import io.split.openfeature.SplitProvider;
+import io.split.openfeature.SplitProviderConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class EvaluationRecorderTest {
+
+  Path file;
+
+  @Mock
+  private SplitClient mockSplitClient;
+
+  @BeforeEach
+  public void init() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    file = Files.createTempFile("evaluations", ".bin");
+    Files.delete(file);
+    when(mockSplitClient.getTreatmentWithConfig(anyString(), anyString(), anyMap())).thenReturn(new SplitResult("on", null));
+  }
+
+  @AfterEach
+  public void cleanUp() throws Exception {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void recordsEvaluationsTest() throws Exception {
+    SplitProvider provider = new SplitProvider(mockSplitClient, SplitProviderConfig.builder()
+            .recordEvaluations(file, 1)
+            .build());
+    when(mockSplitClient.getTreatmentWithConfig(anyString(), eq("third"), anyMap())).thenReturn(new SplitResult("{}", null));
+    Instant signUp = Instant.ofEpochMilli(1_700_000_000_000L);
+    MutableContext alice = new MutableContext("alice")
+            .add("plan", "pro")
+            .add("seats", 12)
+            .add("score", 0.75)
+            .add("beta", true)
+            .add("signUp", signUp)
+            .add("groups", List.of(new Value("a"), new Value("b")));
+
+    provider.getBooleanEvaluation("first", false, alice);
+    provider.getStringEvaluation("second", "", new MutableContext("bob"));
+    provider.getObjectEvaluation("third", new Value(), alice);
+    provider.shutdown();
+
+    List<EvaluationRecord> records = EvaluationRecordReader.readAll(file);
+    assertEquals(3, records.size());
+    EvaluationRecord first = records.get(0);
+    assertEquals(EvaluationRecord.Type.BOOLEAN, first.getType());
+    assertEquals("first", first.getFlag());
+    assertEquals(Map.of("plan", "pro", "seats", 12, "score", 0.75, "beta", true, "signUp", signUp,
+            "groups", List.of("a", "b")), first.getAttributes());
+    // the key is only kept as a hash
+    assertFalse(first.getAttributes().containsKey("targetingKey"));
+    assertEquals(EvaluationRecord.Type.STRING, records.get(1).getType());
+    assertNotEquals(first.getKeyHash(), records.get(1).getKeyHash());
+    assertEquals(EvaluationRecord.Type.OBJECT, records.get(2).getType());
+    assertEquals(first.getKeyHash(), records.get(2).getKeyHash());
+  }
+
+  @Test
+  public void samplingTest() throws Exception {
+    try (EvaluationRecorder recorder = new EvaluationRecorder(file, 0.1)) {
+      for (int i = 0; i < 10_000; i++) {
+        recorder.record(EvaluationRecord.Type.STRING, "flag", "key" + i, Map.of());
+      }
+      assertTrue(recorder.recorded() > 700 && recorder.recorded() < 1300, "recorded " + recorder.recorded());
+    }
+  }
+
+  @Test
+  public void appendsAndToleratesTruncationTest() throws Exception {
+    try (EvaluationRecorder recorder = new EvaluationRecorder(file, 1)) {
+      recorder.record(EvaluationRecord.Type.STRING, "flag", "key", Map.of("plan", "pro"));
+    }
+    try (EvaluationRecorder recorder = new EvaluationRecorder(file, 1)) {
+      recorder.record(EvaluationRecord.Type.INTEGER, "flag", "key", Map.of("plan", "free"));
+    }
+    assertEquals(2, EvaluationRecordReader.readAll(file).size());
+
+    // a crash while writing leaves the last record cut short
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+    List<EvaluationRecord> records = EvaluationRecordReader.readAll(file);
+    assertEquals(1, records.size());
+    assertEquals("pro", records.get(0).getAttributes().get("plan"));
+  }
+
+  @Test
+  public void replayTest() throws Exception {
+    try (EvaluationRecorder recorder = new EvaluationRecorder(file, 1)) {
+      for (int i = 0; i < 100; i++) {
+        recorder.record(EvaluationRecord.Type.BOOLEAN, "my_feature", "key" + i, Map.of("plan", "pro"));
+        recorder.record(EvaluationRecord.Type.INTEGER, "int_feature", "key" + i, Map.of());
+        recorder.record(EvaluationRecord.Type.OBJECT, "obj_feature", "key" + i, Map.of("seats", 3L));
+      }
+    }
+    SplitClientConfig config = SplitClientConfig.builder()
+            .splitFile("src/test/resources/split.yaml")
+            .setBlockUntilReadyTimeout(10000)
+            .build();
+    SplitFactory factory = SplitFactoryBuilder.build("localhost", config);
+    try {
+      SplitProvider provider = new SplitProvider(factory, SplitProviderConfig.builder().build());
+
+      ReplayReport report = EvaluationReplay.replay(provider, EvaluationRecordReader.readAll(file), 3, 2);
+
+      assertEquals(600, report.calls());
+      assertEquals(0, report.errors());
+      assertTrue(report.p50() <= report.p99() && report.p99() <= report.max());
+      assertTrue(report.throughput() > 0);
+    } finally {
+      factory.destroy();
+    }
+  }
+}
@@ -0,0 +1,340 @@
+package io.split.openfeature.storage;
+
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import io.split.client.SplitClient;
+import io.split.client.SplitClientConfig;
+import io.split.client.SplitFactory;
+import io.split.client.SplitFactoryBuilder;
+import io.split.openfeature.SplitProvider;
+import io.split.storages.enums.OperationMode;
+import io.split.storages.enums.StorageMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pluggable.CustomStorageWrapper;
+import pluggable.Pipeline;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NearCacheStorageWrapperTest {
+
+  private static final String FLAG_KEY = "SPLITIO.split.my_flag";
+  private static final String SPLITS_TILL = "SPLITIO.splits.till";
+  private static final String SEGMENT_KEY = "SPLITIO.segment.employees";
+  private static final String SEGMENT_TILL = "SPLITIO.segment.employees.till";
+
+  LocalStorage redis;
+
+  @BeforeEach
+  public void init() {
+    redis = new LocalStorage();
+    redis.values.put(SPLITS_TILL, "1");
+    redis.values.put(FLAG_KEY, "{\"name\":\"my_flag\"}");
+    redis.values.put(SEGMENT_TILL, "1");
+    redis.sets.put(SEGMENT_KEY, new HashSet<>(List.of("alice")));
+  }
+
+  @Test
+  public void cachesDefinitionsTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 60_000);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals("{\"name\":\"my_flag\"}", cache.get(FLAG_KEY));
+    }
+    // one probe of the change numbers plus one read of the definition
+    assertEquals(2, redis.reads.get());
+    assertEquals(99, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  public void cachesMissingValuesTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 60_000);
+
+    assertNull(cache.get("SPLITIO.split.not_there"));
+    assertNull(cache.get("SPLITIO.split.not_there"));
+    assertEquals(2, redis.reads.get());
+  }
+
+  @Test
+  public void doesNotCacheOtherKeysTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 60_000);
+
+    cache.get(SPLITS_TILL);
+    cache.get(SPLITS_TILL);
+    cache.getItemsCount("SPLITIO.events");
+    assertEquals(3, redis.reads.get());
+    assertEquals(0, cache.stats().size());
+  }
+
+  @Test
+  public void getManyOnlyFetchesMissingKeysTest() throws Exception {
+    redis.values.put("SPLITIO.split.other", "{\"name\":\"other\"}");
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 60_000);
+
+    cache.get(FLAG_KEY);
+    List<String> values = cache.getMany(List.of(FLAG_KEY, "SPLITIO.split.other"));
+    assertEquals(List.of("{\"name\":\"my_flag\"}", "{\"name\":\"other\"}"), values);
+    assertEquals(List.of("SPLITIO.split.other"), redis.lastGetMany);
+
+    cache.getMany(List.of(FLAG_KEY, "SPLITIO.split.other"));
+    assertEquals(3, redis.reads.get());
+  }
+
+  @Test
+  public void changeNumberInvalidatesDefinitionsTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 0);
+
+    assertEquals("{\"name\":\"my_flag\"}", cache.get(FLAG_KEY));
+    redis.values.put(FLAG_KEY, "{\"name\":\"my_flag\",\"killed\":true}");
+    // same change number, the local copy is still served
+    assertEquals("{\"name\":\"my_flag\"}", cache.get(FLAG_KEY));
+
+    redis.values.put(SPLITS_TILL, "2");
+    assertEquals("{\"name\":\"my_flag\",\"killed\":true}", cache.get(FLAG_KEY));
+  }
+
+  @Test
+  public void ttlBoundsFreshnessTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 1, 60_000);
+
+    cache.get(FLAG_KEY);
+    redis.values.put(FLAG_KEY, "{\"name\":\"my_flag\",\"killed\":true}");
+    Thread.sleep(5);
+    assertEquals("{\"name\":\"my_flag\",\"killed\":true}", cache.get(FLAG_KEY));
+  }
+
+  @Test
+  public void segmentMembershipTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 0);
+
+    assertTrue(cache.itemContains(SEGMENT_KEY, "alice"));
+    assertFalse(cache.itemContains(SEGMENT_KEY, "bob"));
+    long reads = redis.reads.get();
+    assertTrue(cache.itemContains(SEGMENT_KEY, "alice"));
+    assertFalse(cache.itemContains(SEGMENT_KEY, "bob"));
+    // only the segment change number is probed again
+    assertEquals(reads + 2, redis.reads.get());
+
+    redis.sets.get(SEGMENT_KEY).add("bob");
+    redis.values.put(SEGMENT_TILL, "2");
+    assertTrue(cache.itemContains(SEGMENT_KEY, "bob"));
+  }
+
+  @Test
+  public void writesInvalidateListingsAndMembershipTest() throws Exception {
+    String flagSet = "SPLITIO.flagSet.checkout";
+    redis.sets.put(flagSet, new HashSet<>(List.of("my_flag")));
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 100, 60_000, 60_000);
+
+    assertEquals(Set.of(FLAG_KEY), cache.getKeysByPrefix("SPLITIO.split.*"));
+    assertFalse(cache.itemContains(flagSet, "other"));
+    cache.set("SPLITIO.split.other", "{\"name\":\"other\"}");
+    cache.addItems(flagSet, List.of("other"));
+
+    assertEquals(Set.of(FLAG_KEY, "SPLITIO.split.other"), cache.getKeysByPrefix("SPLITIO.split.*"));
+    assertTrue(cache.itemContains(flagSet, "other"));
+  }
+
+  @Test
+  public void boundedSizeTest() throws Exception {
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis, 10, 60_000, 60_000);
+
+    for (int i = 0; i < 50; i++) {
+      cache.get("SPLITIO.split.flag_" + i);
+    }
+    assertEquals(10, cache.stats().size());
+  }
+
+  @Test
+  public void consumerModeEvaluationsTest() throws Exception {
+    // a definition as the synchronizer would have written it into Redis
+    redis.values.put("SPLITIO.split.hot_flag", "{\"name\":\"hot_flag\",\"trafficTypeName\":\"user\",\"status\":\"ACTIVE\","
+            + "\"killed\":false,\"defaultTreatment\":\"off\",\"changeNumber\":1,\"algo\":2,\"seed\":1,"
+            + "\"trafficAllocation\":100,\"trafficAllocationSeed\":1,\"configurations\":{},\"conditions\":[{"
+            + "\"conditionType\":\"ROLLOUT\",\"label\":\"in segment employees\",\"matcherGroup\":{\"combiner\":\"AND\","
+            + "\"matchers\":[{\"keySelector\":{\"trafficType\":\"user\"},\"matcherType\":\"IN_SEGMENT\",\"negate\":false,"
+            + "\"userDefinedSegmentMatcherData\":{\"segmentName\":\"employees\"}}]},"
+            + "\"partitions\":[{\"treatment\":\"on\",\"size\":100},{\"treatment\":\"off\",\"size\":0}]}]}");
+
+    int evaluations = 5_000;
+    long uncached = evaluate(redis, evaluations);
+    NearCacheStorageWrapper cache = new NearCacheStorageWrapper(redis);
+    long cached = evaluate(cache, evaluations);
+
+    NearCacheStorageWrapper.Stats stats = cache.stats();
+    assertTrue(stats.hitRatio() > 0.99, stats.toString());
+    assertTrue(cached * 10 < uncached, "storage reads " + uncached + " -> " + cached);
+  }
+
+  private long evaluate(CustomStorageWrapper storage, int evaluations) throws Exception {
+    SplitClientConfig config = SplitClientConfig.builder()
+            .operationMode(OperationMode.CONSUMER)
+            .storageMode(StorageMode.PLUGGABLE)
+            .customStorageWrapper(storage)
+            .setBlockUntilReadyTimeout(10000)
+            .build();
+    SplitFactory factory = SplitFactoryBuilder.build("consumer", config);
+    SplitClient client = factory.client();
+    SplitProvider provider = new SplitProvider(client);
+    long before = redis.reads.get();
+    try {
+      for (int i = 0; i < evaluations; i++) {
+        String key = i % 2 == 0 ? "alice" : "bob";
+        ProviderEvaluation<String> evaluation =
+                provider.getStringEvaluation("hot_flag", "control", new MutableContext(key));
+        assertEquals(i % 2 == 0 ? "on" : "off", evaluation.getValue());
+      }
+      return redis.reads.get() - before;
+    } finally {
+      factory.destroy();
+    }
+  }
+
+  /**
+   * Stand-in for Redis: a map based storage that counts every round-trip made to it.
+   */
+  static class LocalStorage implements CustomStorageWrapper {
+    final Map<String, String> values = new ConcurrentHashMap<>();
+    final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+    final Map<String, List<String>> lists = new ConcurrentHashMap<>();
+    final AtomicLong reads = new AtomicLong();
+    volatile List<String> lastGetMany;
+
+    @Override
+    public String get(String key) {
+      reads.incrementAndGet();
+      return values.get(key);
+    }
+
+    @Override
+    public List<String> getMany(List<String> keys) {
+      reads.incrementAndGet();
+      lastGetMany = keys;
+      return keys.stream().map(values::get).collect(Collectors.toList());
+    }
+
+    @Override
+    public void set(String key, String item) {
+      values.put(key, item);
+    }
+
+    @Override
+    public void hSet(String key, String field, String json) {
+      values.put(key + "." + field, json);
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+      keys.forEach(values::remove);
+    }
+
+    @Override
+    public String getAndSet(String key, String item) {
+      return values.put(key, item);
+    }
+
+    @Override
+    public Set<String> getKeysByPrefix(String prefix) {
+      reads.incrementAndGet();
+      String start = prefix.replace("*", "");
+      return values.keySet().stream().filter(k -> k.startsWith(start)).collect(Collectors.toSet());
+    }
+
+    @Override
+    public long increment(String key, long value) {
+      return values.merge(key, String.valueOf(value), (a, b) -> String.valueOf(Long.parseLong(a) + Long.parseLong(b)))
+              .length();
+    }
+
+    @Override
+    public long decrement(String key, long value) {
+      return increment(key, -value);
+    }
+
+    @Override
+    public long hIncrement(String key, String field, long value) {
+      return increment(key + "." + field, value);
+    }
+
+    @Override
+    public long pushItems(String key, List<String> items) {
+      List<String> list = lists.computeIfAbsent(key, k -> new ArrayList<>());
+      synchronized (list) {
+        list.addAll(items);
+        return list.size();
+      }
+    }
+
+    @Override
+    public List<String> popItems(String key, long count) {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public long getItemsCount(String key) {
+      reads.incrementAndGet();
+      List<String> list = lists.get(key);
+      return list == null ? 0 : list.size();
+    }
+
+    @Override
+    public boolean itemContains(String key, String item) {
+      reads.incrementAndGet();
+      Set<String> set = sets.get(key);
+      return set != null && set.contains(item);
+    }
+
+    @Override
+    public void addItems(String key, List<String> items) {
+      sets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).addAll(items);
+    }
+
+    @Override
+    public void removeItems(String key, List<String> items) {
+      Set<String> set = sets.get(key);
+      if (set != null) {
+        items.forEach(set::remove);
+      }
+    }
+
+    @Override
+    public List<String> getItems(List<String> keys) {
+      reads.incrementAndGet();
+      return new ArrayList<>();
+    }
+
+    @Override
+    public Set<String> getMembers(String key) {
+      reads.incrementAndGet();
+      return sets.get(key);
+    }
+
+    @Override
+    public boolean connect() {
+      return true;
+    }
+
+    @Override
+    public boolean disconnect() {
+      return true;
+    }
+
+    @Override
+    public Pipeline pipeline() {
+      return null;
+    }
+  }
+}
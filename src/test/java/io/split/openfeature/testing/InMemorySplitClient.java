@@ -0,0 +1,556 @@
+package io.split.openfeature.testing;
+
+import io.split.client.SplitClient;
+import io.split.client.api.Key;
+import io.split.client.api.SplitResult;
+import io.split.client.dtos.EvaluationOptions;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread-safe {@link SplitClient} that serves treatments from an in-memory table, for load tests and benchmarks of the
+ * provider and of the code around it without the SDK, its storage or its background threads.
+ * <p>
+ * Each flag has a treatment and config served to every key, plus optional per-key overrides. Attributes, evaluation
+ * options and flag sets other than the ones given to the builder are ignored: there is no targeting. Flags not in the
+ * table get "control". The table can be changed while the client is in use; readers see either the old or the new
+ * table, never a mix. An optional latency is added to every evaluation and track call to stand in for the SDK.
+ * <pre>
+ * SplitClient client = InMemorySplitClient.builder()
+ *     .flag("new-checkout", "on")
+ *     .flag("pricing", "v2", "{\"discount\": 10}")
+ *     .override("new-checkout", "qa-user", "off")
+ *     .latency(20, TimeUnit.MICROSECONDS)
+ *     .build();
+ * </pre>
+ */
+public class InMemorySplitClient implements SplitClient {
+
+  public static final String CONTROL = "control";
+
+  private static final SplitResult CONTROL_RESULT = new SplitResult(CONTROL, null);
+
+  // below this, latency is spun rather than parked: parking can't wake up that precisely
+  private static final long SPIN_LIMIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private volatile Map<String, Flag> flags;
+  private volatile long latencyNanos;
+  private volatile boolean destroyed = false;
+  private final LongAdder evaluations = new LongAdder();
+  private final LongAdder tracked = new LongAdder();
+
+  private InMemorySplitClient(Builder builder) {
+    this.flags = Map.copyOf(builder.flags);
+    this.latencyNanos = builder.latencyNanos;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Adds or replaces a flag. Its per-key overrides are dropped.
+   */
+  public synchronized void setFlag(String name, String treatment, String config) {
+    Map<String, Flag> updated = new HashMap<>(flags);
+    Flag previous = updated.get(name);
+    updated.put(name, new Flag(new SplitResult(treatment, config), Map.of(), previous == null ? Set.of() : previous.sets));
+    flags = Map.copyOf(updated);
+  }
+
+  public synchronized void setOverride(String flag, String key, String treatment, String config) {
+    Map<String, Flag> updated = new HashMap<>(flags);
+    updated.put(flag, flagOrControl(updated.get(flag)).withOverride(key, new SplitResult(treatment, config)));
+    flags = Map.copyOf(updated);
+  }
+
+  public synchronized void removeFlag(String name) {
+    Map<String, Flag> updated = new HashMap<>(flags);
+    updated.remove(name);
+    flags = Map.copyOf(updated);
+  }
+
+  public void setLatency(long latency, TimeUnit unit) {
+    this.latencyNanos = unit.toNanos(latency);
+  }
+
+  /**
+   * @return number of flags evaluated, a call for several flags counts each of them
+   */
+  public long evaluations() {
+    return evaluations.sum();
+  }
+
+  /**
+   * @return number of events accepted by track
+   */
+  public long tracked() {
+    return tracked.sum();
+  }
+
+  public boolean isDestroyed() {
+    return destroyed;
+  }
+
+  // ---- evaluation
+
+  private SplitResult result(String key, String flagName) {
+    evaluations.increment();
+    // the immutable maps reject null lookups, the SDK returns control for an invalid key or flag name
+    if (destroyed || key == null || flagName == null) {
+      return CONTROL_RESULT;
+    }
+    Flag flag = flags.get(flagName);
+    if (flag == null) {
+      return CONTROL_RESULT;
+    }
+    SplitResult override = flag.overrides.get(key);
+    return override == null ? flag.result : override;
+  }
+
+  private SplitResult evaluate(String key, String flagName) {
+    pause();
+    return result(key, flagName);
+  }
+
+  private Map<String, SplitResult> evaluateAll(String key, List<String> flagNames) {
+    pause();
+    Map<String, SplitResult> results = new HashMap<>(flagNames.size() * 4 / 3 + 1);
+    for (String flagName : flagNames) {
+      results.put(flagName, result(key, flagName));
+    }
+    return results;
+  }
+
+  private Map<String, SplitResult> evaluateSets(String key, List<String> sets) {
+    pause();
+    Map<String, SplitResult> results = new HashMap<>();
+    for (Map.Entry<String, Flag> flag : flags.entrySet()) {
+      for (String set : sets) {
+        if (flag.getValue().sets.contains(set)) {
+          results.put(flag.getKey(), result(key, flag.getKey()));
+          break;
+        }
+      }
+    }
+    return results;
+  }
+
+  private static Map<String, String> treatments(Map<String, SplitResult> results) {
+    Map<String, String> treatments = new HashMap<>(results.size() * 4 / 3 + 1);
+    results.forEach((flag, result) -> treatments.put(flag, result.treatment()));
+    return treatments;
+  }
+
+  private void pause() {
+    long nanos = latencyNanos;
+    if (nanos <= 0) {
+      return;
+    }
+    if (nanos >= SPIN_LIMIT_NANOS) {
+      LockSupport.parkNanos(nanos);
+      return;
+    }
+    long deadline = System.nanoTime() + nanos;
+    while (System.nanoTime() - deadline < 0) {
+      Thread.onSpinWait();
+    }
+  }
+
+  @Override
+  public String getTreatment(String key, String featureFlagName) {
+    return evaluate(key, featureFlagName).treatment();
+  }
+
+  @Override
+  public String getTreatment(String key, String featureFlagName, Map<String, Object> attributes) {
+    return evaluate(key, featureFlagName).treatment();
+  }
+
+  @Override
+  public String getTreatment(Key key, String featureFlagName, Map<String, Object> attributes) {
+    return evaluate(key.matchingKey(), featureFlagName).treatment();
+  }
+
+  @Override
+  public String getTreatment(String key, String featureFlagName, EvaluationOptions evaluationOptions) {
+    return evaluate(key, featureFlagName).treatment();
+  }
+
+  @Override
+  public String getTreatment(String key, String featureFlagName, Map<String, Object> attributes,
+                             EvaluationOptions evaluationOptions) {
+    return evaluate(key, featureFlagName).treatment();
+  }
+
+  @Override
+  public String getTreatment(Key key, String featureFlagName, Map<String, Object> attributes,
+                             EvaluationOptions evaluationOptions) {
+    return evaluate(key.matchingKey(), featureFlagName).treatment();
+  }
+
+  @Override
+  public SplitResult getTreatmentWithConfig(String key, String featureFlagName) {
+    return evaluate(key, featureFlagName);
+  }
+
+  @Override
+  public SplitResult getTreatmentWithConfig(String key, String featureFlagName, Map<String, Object> attributes) {
+    return evaluate(key, featureFlagName);
+  }
+
+  @Override
+  public SplitResult getTreatmentWithConfig(Key key, String featureFlagName, Map<String, Object> attributes) {
+    return evaluate(key.matchingKey(), featureFlagName);
+  }
+
+  @Override
+  public SplitResult getTreatmentWithConfig(String key, String featureFlagName, EvaluationOptions evaluationOptions) {
+    return evaluate(key, featureFlagName);
+  }
+
+  @Override
+  public SplitResult getTreatmentWithConfig(String key, String featureFlagName, Map<String, Object> attributes,
+                                            EvaluationOptions evaluationOptions) {
+    return evaluate(key, featureFlagName);
+  }
+
+  @Override
+  public SplitResult getTreatmentWithConfig(Key key, String featureFlagName, Map<String, Object> attributes,
+                                            EvaluationOptions evaluationOptions) {
+    return evaluate(key.matchingKey(), featureFlagName);
+  }
+
+  @Override
+  public Map<String, String> getTreatments(String key, List<String> featureFlagNames) {
+    return treatments(evaluateAll(key, featureFlagNames));
+  }
+
+  @Override
+  public Map<String, String> getTreatments(String key, List<String> featureFlagNames, Map<String, Object> attributes) {
+    return treatments(evaluateAll(key, featureFlagNames));
+  }
+
+  @Override
+  public Map<String, String> getTreatments(Key key, List<String> featureFlagNames, Map<String, Object> attributes) {
+    return treatments(evaluateAll(key.matchingKey(), featureFlagNames));
+  }
+
+  @Override
+  public Map<String, String> getTreatments(String key, List<String> featureFlagNames, EvaluationOptions evaluationOptions) {
+    return treatments(evaluateAll(key, featureFlagNames));
+  }
+
+  @Override
+  public Map<String, String> getTreatments(String key, List<String> featureFlagNames, Map<String, Object> attributes,
+                                           EvaluationOptions evaluationOptions) {
+    return treatments(evaluateAll(key, featureFlagNames));
+  }
+
+  @Override
+  public Map<String, String> getTreatments(Key key, List<String> featureFlagNames, Map<String, Object> attributes,
+                                           EvaluationOptions evaluationOptions) {
+    return treatments(evaluateAll(key.matchingKey(), featureFlagNames));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfig(String key, List<String> featureFlagNames) {
+    return evaluateAll(key, featureFlagNames);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfig(String key, List<String> featureFlagNames,
+                                                          Map<String, Object> attributes) {
+    return evaluateAll(key, featureFlagNames);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfig(Key key, List<String> featureFlagNames,
+                                                          Map<String, Object> attributes) {
+    return evaluateAll(key.matchingKey(), featureFlagNames);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfig(String key, List<String> featureFlagNames,
+                                                          EvaluationOptions evaluationOptions) {
+    return evaluateAll(key, featureFlagNames);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfig(String key, List<String> featureFlagNames,
+                                                          Map<String, Object> attributes,
+                                                          EvaluationOptions evaluationOptions) {
+    return evaluateAll(key, featureFlagNames);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfig(Key key, List<String> featureFlagNames,
+                                                          Map<String, Object> attributes,
+                                                          EvaluationOptions evaluationOptions) {
+    return evaluateAll(key.matchingKey(), featureFlagNames);
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSet(String key, String flagSet) {
+    return treatments(evaluateSets(key, List.of(flagSet)));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSet(String key, String flagSet, Map<String, Object> attributes) {
+    return treatments(evaluateSets(key, List.of(flagSet)));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSet(Key key, String flagSet, Map<String, Object> attributes) {
+    return treatments(evaluateSets(key.matchingKey(), List.of(flagSet)));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSet(String key, String flagSet, EvaluationOptions evaluationOptions) {
+    return treatments(evaluateSets(key, List.of(flagSet)));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSet(String key, String flagSet, Map<String, Object> attributes,
+                                                    EvaluationOptions evaluationOptions) {
+    return treatments(evaluateSets(key, List.of(flagSet)));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSet(Key key, String flagSet, Map<String, Object> attributes,
+                                                    EvaluationOptions evaluationOptions) {
+    return treatments(evaluateSets(key.matchingKey(), List.of(flagSet)));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSets(String key, List<String> flagSets) {
+    return treatments(evaluateSets(key, flagSets));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSets(String key, List<String> flagSets, Map<String, Object> attributes) {
+    return treatments(evaluateSets(key, flagSets));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSets(Key key, List<String> flagSets, Map<String, Object> attributes) {
+    return treatments(evaluateSets(key.matchingKey(), flagSets));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSets(String key, List<String> flagSets,
+                                                     EvaluationOptions evaluationOptions) {
+    return treatments(evaluateSets(key, flagSets));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSets(String key, List<String> flagSets, Map<String, Object> attributes,
+                                                     EvaluationOptions evaluationOptions) {
+    return treatments(evaluateSets(key, flagSets));
+  }
+
+  @Override
+  public Map<String, String> getTreatmentsByFlagSets(Key key, List<String> flagSets, Map<String, Object> attributes,
+                                                     EvaluationOptions evaluationOptions) {
+    return treatments(evaluateSets(key.matchingKey(), flagSets));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSet(String key, String flagSet) {
+    return evaluateSets(key, List.of(flagSet));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSet(String key, String flagSet,
+                                                                   Map<String, Object> attributes) {
+    return evaluateSets(key, List.of(flagSet));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSet(Key key, String flagSet,
+                                                                   Map<String, Object> attributes) {
+    return evaluateSets(key.matchingKey(), List.of(flagSet));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSet(String key, String flagSet,
+                                                                   EvaluationOptions evaluationOptions) {
+    return evaluateSets(key, List.of(flagSet));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSet(String key, String flagSet,
+                                                                   Map<String, Object> attributes,
+                                                                   EvaluationOptions evaluationOptions) {
+    return evaluateSets(key, List.of(flagSet));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSet(Key key, String flagSet,
+                                                                   Map<String, Object> attributes,
+                                                                   EvaluationOptions evaluationOptions) {
+    return evaluateSets(key.matchingKey(), List.of(flagSet));
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSets(String key, List<String> flagSets) {
+    return evaluateSets(key, flagSets);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSets(String key, List<String> flagSets,
+                                                                    Map<String, Object> attributes) {
+    return evaluateSets(key, flagSets);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSets(Key key, List<String> flagSets,
+                                                                    Map<String, Object> attributes) {
+    return evaluateSets(key.matchingKey(), flagSets);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSets(String key, List<String> flagSets,
+                                                                    EvaluationOptions evaluationOptions) {
+    return evaluateSets(key, flagSets);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSets(String key, List<String> flagSets,
+                                                                    Map<String, Object> attributes,
+                                                                    EvaluationOptions evaluationOptions) {
+    return evaluateSets(key, flagSets);
+  }
+
+  @Override
+  public Map<String, SplitResult> getTreatmentsWithConfigByFlagSets(Key key, List<String> flagSets,
+                                                                    Map<String, Object> attributes,
+                                                                    EvaluationOptions evaluationOptions) {
+    return evaluateSets(key.matchingKey(), flagSets);
+  }
+
+  // ---- tracking and lifecycle
+
+  @Override
+  public boolean track(String key, String trafficType, String eventType) {
+    return track(key, trafficType, eventType, 0, null);
+  }
+
+  @Override
+  public boolean track(String key, String trafficType, String eventType, double value) {
+    return track(key, trafficType, eventType, value, null);
+  }
+
+  @Override
+  public boolean track(String key, String trafficType, String eventType, Map<String, Object> properties) {
+    return track(key, trafficType, eventType, 0, properties);
+  }
+
+  @Override
+  public boolean track(String key, String trafficType, String eventType, double value, Map<String, Object> properties) {
+    pause();
+    if (destroyed || key == null || trafficType == null || eventType == null) {
+      return false;
+    }
+    tracked.increment();
+    return true;
+  }
+
+  @Override
+  public void destroy() {
+    destroyed = true;
+  }
+
+  @Override
+  public void blockUntilReady() {
+    // always ready
+  }
+
+  private static Flag flagOrControl(Flag flag) {
+    return flag == null ? new Flag(CONTROL_RESULT, Map.of(), Set.of()) : flag;
+  }
+
+  private static final class Flag {
+    final SplitResult result;
+    final Map<String, SplitResult> overrides;
+    final Set<String> sets;
+
+    Flag(SplitResult result, Map<String, SplitResult> overrides, Set<String> sets) {
+      this.result = result;
+      this.overrides = overrides;
+      this.sets = sets;
+    }
+
+    Flag withOverride(String key, SplitResult override) {
+      Map<String, SplitResult> updated = new HashMap<>(overrides);
+      updated.put(key, override);
+      return new Flag(result, Map.copyOf(updated), sets);
+    }
+
+    Flag withSets(Set<String> sets) {
+      return new Flag(result, overrides, Set.copyOf(sets));
+    }
+  }
+
+  public static final class Builder {
+    private final Map<String, Flag> flags = new HashMap<>();
+    private long latencyNanos = 0;
+
+    private Builder() {
+    }
+
+    public Builder flag(String name, String treatment) {
+      return flag(name, treatment, null);
+    }
+
+    public Builder flag(String name, String treatment, String config) {
+      Flag previous = flags.get(name);
+      flags.put(name, previous == null
+              ? new Flag(new SplitResult(treatment, config), Map.of(), Set.of())
+              : new Flag(new SplitResult(treatment, config), previous.overrides, previous.sets));
+      return this;
+    }
+
+    /**
+     * Serves a different treatment to one key. If the flag isn't in the table, every other key gets "control".
+     */
+    public Builder override(String flag, String key, String treatment) {
+      return override(flag, key, treatment, null);
+    }
+
+    public Builder override(String flag, String key, String treatment, String config) {
+      flags.put(flag, flagOrControl(flags.get(flag)).withOverride(key, new SplitResult(treatment, config)));
+      return this;
+    }
+
+    /**
+     * Puts the flag in the given flag sets, for the getTreatmentsByFlagSet(s) methods.
+     */
+    public Builder flagSets(String flag, String... sets) {
+      flags.put(flag, flagOrControl(flags.get(flag)).withSets(Set.of(sets)));
+      return this;
+    }
+
+    /**
+     * Latency added to every evaluation and track call. Latencies under 100 microseconds are spun, longer ones are
+     * parked. Default 0.
+     */
+    public Builder latency(long latency, TimeUnit unit) {
+      this.latencyNanos = unit.toNanos(latency);
+      return this;
+    }
+
+    public InMemorySplitClient build() {
+      if (latencyNanos < 0) {
+        throw new IllegalArgumentException("latency must not be negative");
+      }
+      return new InMemorySplitClient(this);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package io.split.openfeature.testing;
+
+import dev.openfeature.sdk.MutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import io.split.client.api.Key;
+import io.split.client.api.SplitResult;
+import io.split.openfeature.SplitProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemorySplitClientTest {
+
+  @Test
+  public void tableAndOverridesTest() {
+    InMemorySplitClient client = InMemorySplitClient.builder()
+            .flag("first", "on")
+            .flag("second", "v2", "{\"size\": 10}")
+            .override("first", "qa", "off")
+            .build();
+
+    assertEquals("on", client.getTreatment("key", "first"));
+    assertEquals("off", client.getTreatment("qa", "first", Map.of()));
+    assertEquals("off", client.getTreatment(new Key("qa", "bucket"), "first", Map.of()));
+    assertEquals(new SplitResult("v2", "{\"size\": 10}"), client.getTreatmentWithConfig("key", "second"));
+    assertEquals(InMemorySplitClient.CONTROL, client.getTreatment("key", "missing"));
+    assertEquals(Map.of("first", "off", "second", "v2", "missing", "control"),
+            client.getTreatments("qa", List.of("first", "second", "missing")));
+    assertEquals(InMemorySplitClient.CONTROL, client.getTreatment(null, "first"));
+    assertEquals(InMemorySplitClient.CONTROL, client.getTreatment("key", null));
+    assertEquals(10, client.evaluations());
+  }
+
+  @Test
+  public void flagSetsTest() {
+    InMemorySplitClient client = InMemorySplitClient.builder()
+            .flag("first", "on")
+            .flag("second", "off")
+            .flag("third", "off")
+            .flagSets("first", "checkout")
+            .flagSets("second", "checkout", "pricing")
+            .build();
+
+    assertEquals(Map.of("first", "on", "second", "off"), client.getTreatmentsByFlagSet("key", "checkout"));
+    assertEquals(Map.of("second", "off"), client.getTreatmentsByFlagSets("key", List.of("pricing", "unknown")));
+  }
+
+  @Test
+  public void providerTest() {
+    InMemorySplitClient client = InMemorySplitClient.builder()
+            .flag("first", "on")
+            .flag("amount", "32")
+            .build();
+    SplitProvider provider = new SplitProvider(client);
+
+    ProviderEvaluation<Boolean> first = provider.getBooleanEvaluation("first", false, new MutableContext("key"));
+    assertTrue(first.getValue());
+    assertNull(first.getErrorCode());
+    assertEquals(32, provider.getIntegerEvaluation("amount", 0, new MutableContext("key")).getValue());
+    assertEquals("default", provider.getStringEvaluation("missing", "default", new MutableContext("key")).getValue());
+
+    provider.track("purchase", new MutableContext("key").add("trafficType", "user"), null);
+    assertEquals(1, client.tracked());
+
+    provider.shutdown();
+    assertTrue(client.isDestroyed());
+    assertEquals("control", client.getTreatment("key", "first"));
+    assertFalse(client.track("key", "user", "purchase"));
+  }
+
+  @Test
+  public void latencyTest() {
+    InMemorySplitClient client = InMemorySplitClient.builder()
+            .flag("first", "on")
+            .latency(2, TimeUnit.MILLISECONDS)
+            .build();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 10; i++) {
+      client.getTreatment("key", "first");
+    }
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+
+    client.setLatency(0, TimeUnit.MILLISECONDS);
+    start = System.nanoTime();
+    client.getTreatment("key", "first");
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(2));
+  }
+
+  @Test
+  public void concurrentUpdatesTest() throws InterruptedException {
+    InMemorySplitClient client = InMemorySplitClient.builder()
+            .flag("first", "v0")
+            .build();
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<String> unexpected = new AtomicReference<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread reader = new Thread(() -> {
+        while (running.get()) {
+          // a treatment and its config are always updated together
+          SplitResult result = client.getTreatmentWithConfig("key", "first");
+          String expected = result.treatment().equals("v0") ? null : "config-" + result.treatment();
+          if (expected != null && !expected.equals(result.config())) {
+            unexpected.set(result.treatment() + "/" + result.config());
+          }
+        }
+      });
+      readers.add(reader);
+      reader.start();
+    }
+    for (int i = 1; i <= 10_000; i++) {
+      client.setFlag("first", "v" + i, "config-v" + i);
+    }
+    running.set(false);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    assertNull(unexpected.get());
+    assertEquals("v10000", client.getTreatment("key", "first"));
+  }
+}